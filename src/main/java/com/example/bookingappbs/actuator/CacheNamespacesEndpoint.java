@@ -0,0 +1,33 @@
+package com.example.bookingappbs.actuator;
+
+import com.example.bookingappbs.dto.cache.CacheNamespaceStats;
+import com.example.bookingappbs.service.CacheNamespaces;
+import com.example.bookingappbs.service.RedisService;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "cachenamespaces")
+@RequiredArgsConstructor
+public class CacheNamespacesEndpoint {
+    private final CacheNamespaces cacheNamespaces;
+    private final RedisService redisService;
+
+    @ReadOperation
+    public Map<String, CacheNamespaceStats> namespaces() {
+        Map<String, CacheNamespaceStats> stats = new LinkedHashMap<>();
+        cacheNamespaces.namespaces().forEach(namespace ->
+                stats.put(namespace, redisService.namespaceStats(namespace)));
+        return stats;
+    }
+
+    @ReadOperation
+    public CacheNamespaceStats namespace(@Selector String namespace) {
+        return redisService.namespaceStats(namespace);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bookingappbs.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+    public static final String CACHE_MAINTENANCE_EXECUTOR = "cacheMaintenanceExecutor";
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    private static final Logger logger = LogManager.getLogger(AsyncConfig.class);
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    @Bean(name = CACHE_MAINTENANCE_EXECUTOR)
+    public ThreadPoolTaskExecutor cacheMaintenanceExecutor(
+            @Value("${async.cache-maintenance.core-size}") int coreSize,
+            @Value("${async.cache-maintenance.max-size}") int maxSize,
+            @Value("${async.cache-maintenance.queue-capacity}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        return executor("cache-maintenance-", coreSize, maxSize, queueCapacity,
+                countingRejections(CACHE_MAINTENANCE_EXECUTOR, meterRegistry,
+                        new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${async.notifications.core-size}") int coreSize,
+            @Value("${async.notifications.max-size}") int maxSize,
+            @Value("${async.notifications.queue-capacity}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        return executor("notifications-", coreSize, maxSize, queueCapacity,
+                countingRejections(NOTIFICATION_EXECUTOR, meterRegistry, (task, executor) ->
+                        logger.warn("Notification queue is full. Dropping notification.")));
+    }
+
+    @Bean
+    public MeterBinder asyncExecutorMetrics(
+            @Qualifier(CACHE_MAINTENANCE_EXECUTOR) ThreadPoolTaskExecutor cacheMaintenanceExecutor,
+            @Qualifier(NOTIFICATION_EXECUTOR) ThreadPoolTaskExecutor notificationExecutor
+    ) {
+        return registry -> {
+            new ExecutorServiceMetrics(cacheMaintenanceExecutor.getThreadPoolExecutor(),
+                    CACHE_MAINTENANCE_EXECUTOR, Tags.empty()).bindTo(registry);
+            new ExecutorServiceMetrics(notificationExecutor.getThreadPoolExecutor(),
+                    NOTIFICATION_EXECUTOR, Tags.empty()).bindTo(registry);
+        };
+    }
+
+    private ThreadPoolTaskExecutor executor(
+            String threadNamePrefix,
+            int coreSize,
+            int maxSize,
+            int queueCapacity,
+            RejectedExecutionHandler rejectedExecutionHandler
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(SHUTDOWN_TIMEOUT_SECONDS);
+        return executor;
+    }
+
+    private RejectedExecutionHandler countingRejections(
+            String executorName,
+            MeterRegistry meterRegistry,
+            RejectedExecutionHandler delegate
+    ) {
+        return (task, executor) -> {
+            meterRegistry.counter("executor.rejections", "name", executorName).increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+}
@@ -1,9 +1,22 @@
 package com.example.bookingappbs.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.example.bookingappbs.security.PrincipalCache;
+import com.example.bookingappbs.security.PrincipalCacheEvictionListener;
+import com.example.bookingappbs.service.NearCache;
+import com.example.bookingappbs.service.NearCacheInvalidationListener;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -11,9 +24,10 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import redis.clients.jedis.JedisPoolConfig;
 
 @Configuration
@@ -25,45 +39,99 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int port;
 
-    @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
-        redisConfig.setHostName(host);
-        redisConfig.setPort(port);
+    @Value("${redis.client.connect-timeout}")
+    private Duration connectTimeout;
+
+    @Value("${redis.client.command-timeout}")
+    private Duration commandTimeout;
+
+    @Value("${redis.pool.max-total}")
+    private int poolMaxTotal;
 
+    @Value("${redis.pool.max-idle}")
+    private int poolMaxIdle;
+
+    @Value("${redis.pool.min-idle}")
+    private int poolMinIdle;
+
+    @Value("${redis.pool.max-wait}")
+    private Duration poolMaxWait;
+
+    @Bean
+    @ConditionalOnProperty(name = "redis.client.type", havingValue = "jedis",
+            matchIfMissing = true)
+    public RedisConnectionFactory jedisConnectionFactory() {
         JedisPoolConfig poolConfig = new JedisPoolConfig();
-        poolConfig.setMaxTotal(5);
-        poolConfig.setMaxIdle(5);
-        poolConfig.setMinIdle(1);
+        poolConfig.setMaxTotal(poolMaxTotal);
+        poolConfig.setMaxIdle(poolMaxIdle);
+        poolConfig.setMinIdle(poolMinIdle);
+        poolConfig.setMaxWait(poolMaxWait);
+        poolConfig.setJmxEnabled(true);
+        poolConfig.setJmxNamePrefix("redis-pool");
 
         JedisClientConfiguration clientConfig = JedisClientConfiguration.builder()
+                .connectTimeout(connectTimeout)
+                .readTimeout(commandTimeout)
                 .usePooling()
                 .poolConfig(poolConfig)
                 .build();
 
-        return new JedisConnectionFactory(redisConfig, clientConfig);
+        return new JedisConnectionFactory(standaloneConfiguration(), clientConfig);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "redis.client.type", havingValue = "lettuce")
+    public ClientResources lettuceClientResources(MeterRegistry meterRegistry) {
+        return DefaultClientResources.builder()
+                .commandLatencyRecorder(new MicrometerCommandLatencyRecorder(
+                        meterRegistry, MicrometerOptions.create()))
+                .build();
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate() {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(redisConnectionFactory());
+    @ConditionalOnProperty(name = "redis.client.type", havingValue = "lettuce")
+    public RedisConnectionFactory lettuceConnectionFactory(ClientResources clientResources) {
+        ClientOptions clientOptions = ClientOptions.builder()
+                .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).build())
+                .timeoutOptions(TimeoutOptions.enabled(commandTimeout))
+                .build();
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .clientOptions(clientOptions)
+                .commandTimeout(commandTimeout)
+                .build();
 
-        GenericJackson2JsonRedisSerializer serializer =
-                new GenericJackson2JsonRedisSerializer(mapper);
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(standaloneConfiguration(), clientConfig);
+        connectionFactory.setShareNativeConnection(true);
+        return connectionFactory;
+    }
 
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(serializer);
-        template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(serializer);
+    @Bean
+    public CommonsObjectPool2Metrics redisPoolMetrics() {
+        return new CommonsObjectPool2Metrics(Tags.of("client", "jedis"));
+    }
 
-        template.setEnableTransactionSupport(true);
-        template.afterPropertiesSet();
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            NearCacheInvalidationListener nearCacheInvalidationListener,
+            PrincipalCacheEvictionListener principalCacheEvictionListener
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(nearCacheInvalidationListener,
+                new ChannelTopic(NearCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(principalCacheEvictionListener,
+                new ChannelTopic(PrincipalCache.EVICTION_CHANNEL));
+        return container;
+    }
 
-        return template;
+    private RedisStandaloneConfiguration standaloneConfiguration() {
+        RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
+        redisConfig.setHostName(host);
+        redisConfig.setPort(port);
+        return redisConfig;
     }
 }
@@ -47,13 +47,18 @@ public class SecurityConfig {
                 .authorizeHttpRequests(
                         auth -> auth.requestMatchers("/register",
                                         "/login",
+                                        "/refresh",
                                         "/error",
                                         "/swagger-ui/**",
                                         "/v3/api-docs/**",
                                         "/actuator/health")
                                 .permitAll()
+                                .requestMatchers(HttpMethod.POST, "/payments/webhook").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/accommodations").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/accommodations/available")
+                                .permitAll()
                                 .requestMatchers(HttpMethod.GET, "/accommodations/{id}").permitAll()
+                                .requestMatchers("/actuator/cachenamespaces/**").hasRole("ADMIN")
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
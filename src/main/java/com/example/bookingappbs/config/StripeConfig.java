@@ -0,0 +1,16 @@
+package com.example.bookingappbs.config;
+
+import com.stripe.StripeClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stripe", matchIfMissing = true)
+public class StripeConfig {
+    @Bean
+    public StripeClient stripeClient(@Value("${stripe_secret_key}") String secretKey) {
+        return new StripeClient(secretKey);
+    }
+}
@@ -1,25 +0,0 @@
-package com.example.bookingappbs.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Profile;
-import org.telegram.telegrambots.meta.TelegramBotsApi;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.meta.generics.LongPollingBot;
-import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
-
-@Configuration
-public class TelegramBotConfig {
-    @Bean
-    @Profile("!test")
-    public TelegramBotsApi telegramBotsApi(LongPollingBot telegramBot)
-            throws TelegramApiException {
-        TelegramBotsApi telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
-        try {
-            telegramBotsApi.registerBot(telegramBot);
-        } catch (TelegramApiException e) {
-            throw new TelegramApiException("Error creating Telegram Chat Bot BEAN");
-        }
-        return telegramBotsApi;
-    }
-}
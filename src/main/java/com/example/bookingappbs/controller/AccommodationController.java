@@ -3,11 +3,13 @@ package com.example.bookingappbs.controller;
 import com.example.bookingappbs.dto.accommodation.AccommodationDto;
 import com.example.bookingappbs.dto.accommodation.CreateAccommodationRequestDto;
 import com.example.bookingappbs.dto.accommodation.UpdateAccommodationRequestDto;
+import com.example.bookingappbs.model.Accommodation.Type;
 import com.example.bookingappbs.service.accommodation.AccommodationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
@@ -15,6 +17,7 @@ import org.apache.logging.log4j.Logger;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +28,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -70,6 +74,28 @@ public class AccommodationController {
         return accommodationDtos;
     }
 
+    @GetMapping("/available")
+    @Operation(
+            summary = "Search accommodations available for dates",
+            description = "Provides accommodations with free units between check-in and "
+                    + "check-out, optionally filtered by type and city"
+    )
+    public List<AccommodationDto> getAvailableAccommodations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Type type,
+            @RequestParam(required = false) String city,
+            @ParameterObject @PageableDefault Pageable pageable
+    ) {
+        logger.info("Received request to search available accommodations from {} to {}, "
+                + "type: {}, city: {}", checkIn, checkOut, type, city);
+        List<AccommodationDto> accommodationDtos = accommodationService
+                .findAvailable(checkIn, checkOut, type, city, pageable);
+
+        logger.info("Found {} available accommodations.", accommodationDtos.size());
+        return accommodationDtos;
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get accommodation information by id",
@@ -1,5 +1,6 @@
 package com.example.bookingappbs.controller;
 
+import com.example.bookingappbs.dto.user.RefreshTokenRequestDto;
 import com.example.bookingappbs.dto.user.UserLoginRequestDto;
 import com.example.bookingappbs.dto.user.UserLoginResponseDto;
 import com.example.bookingappbs.dto.user.UserRegistrationRequestDto;
@@ -47,4 +48,12 @@ public class AuthenticationController {
         logger.info("User {} successfully logged in.", requestDto.email());
         return loginResponseDto;
     }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens",
+            description = "Exchanges a valid refresh token for a new pair of JWT tokens")
+    public UserLoginResponseDto refresh(@Valid @RequestBody RefreshTokenRequestDto requestDto) {
+        logger.info("Processing token refresh request.");
+        return authenticationService.refresh(requestDto);
+    }
 }
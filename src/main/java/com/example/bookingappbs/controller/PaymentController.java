@@ -3,6 +3,8 @@ package com.example.bookingappbs.controller;
 import com.example.bookingappbs.dto.payment.PaymentDto;
 import com.example.bookingappbs.model.User;
 import com.example.bookingappbs.service.payment.PaymentProcessingService;
+import com.example.bookingappbs.service.payment.StripeWebhookService;
+import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +15,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -20,6 +23,8 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -31,6 +36,7 @@ public class PaymentController {
     private static final Logger logger = LogManager.getLogger(PaymentController.class);
 
     private final PaymentProcessingService paymentProcessingService;
+    private final StripeWebhookService stripeWebhookService;
 
     @PostMapping
     @ResponseBody
@@ -136,6 +142,18 @@ public class PaymentController {
         return "payment_cancel";
     }
 
+    @PostMapping("/webhook")
+    @Operation(summary = "Receives signed Stripe checkout session events")
+    public ResponseEntity<Void> handleWebhook(
+            @RequestBody String payload,
+            @RequestHeader("Stripe-Signature") String signature
+    ) throws SignatureVerificationException {
+        boolean stored = stripeWebhookService.receive(payload, signature);
+
+        logger.info("Stripe webhook accepted, stored for processing: {}", stored);
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/renew/{paymentId}")
     @Operation(
             summary = "Renews an expired payment session",
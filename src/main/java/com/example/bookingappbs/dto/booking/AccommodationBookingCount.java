@@ -0,0 +1,4 @@
+package com.example.bookingappbs.dto.booking;
+
+public record AccommodationBookingCount(Long accommodationId, Long bookingCount) {
+}
@@ -0,0 +1,10 @@
+package com.example.bookingappbs.dto.booking;
+
+import java.time.LocalDate;
+
+public record BookingStay(
+        Long accommodationId,
+        LocalDate checkInDate,
+        LocalDate checkOutDate
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.bookingappbs.dto.booking;
+
+import com.example.bookingappbs.model.Booking.Status;
+import java.time.LocalDate;
+
+public record ExpiringBooking(
+        Long id,
+        Long userId,
+        Long accommodationId,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        Status status
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.bookingappbs.dto.cache;
+
+import java.time.Duration;
+
+public record CacheNamespaceStats(
+        Duration ttl,
+        long keys,
+        long sampledKeys,
+        long sampledBytes,
+        long estimatedBytes
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.bookingappbs.dto.payment;
+
+import java.time.LocalDateTime;
+
+public record CheckoutSession(
+        String id,
+        String url,
+        String status,
+        String paymentStatus,
+        LocalDateTime expiresAt
+) {
+}
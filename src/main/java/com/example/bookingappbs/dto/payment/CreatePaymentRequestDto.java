@@ -3,6 +3,7 @@ package com.example.bookingappbs.dto.payment;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public record CreatePaymentRequestDto(
         @NotNull(message = "Booking ID cannot be null")
@@ -12,6 +13,7 @@ public record CreatePaymentRequestDto(
         @NotBlank(message = "Session ID cannot be blank")
         String sessionId,
         @NotNull(message = "Amount to pay cannot be null")
-        BigDecimal amountToPay
+        BigDecimal amountToPay,
+        LocalDateTime expiresAt
 ) {
 }
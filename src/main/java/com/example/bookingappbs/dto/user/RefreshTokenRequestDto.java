@@ -0,0 +1,9 @@
+package com.example.bookingappbs.dto.user;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDto(
+        @NotBlank
+        String refreshToken
+) {
+}
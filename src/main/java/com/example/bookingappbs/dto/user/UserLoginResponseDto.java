@@ -1,4 +1,4 @@
 package com.example.bookingappbs.dto.user;
 
-public record UserLoginResponseDto(String token) {
+public record UserLoginResponseDto(String token, String refreshToken) {
 }
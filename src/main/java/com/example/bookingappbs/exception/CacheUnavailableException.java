@@ -0,0 +1,11 @@
+package com.example.bookingappbs.exception;
+
+public class CacheUnavailableException extends RuntimeException {
+    public CacheUnavailableException(String message) {
+        super(message);
+    }
+
+    public CacheUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bookingappbs.exception;
 
+import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -58,6 +59,15 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return "result";
     }
 
+    @ExceptionHandler(SignatureVerificationException.class)
+    public ResponseEntity<Object> handleSignatureVerificationException(
+            SignatureVerificationException exception,
+            WebRequest request
+    ) {
+        return buildResponseEntity(HttpStatus.BAD_REQUEST, "Invalid webhook signature",
+                List.of("Bad Request"), exception.getMessage());
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Object> handleAccessDeniedException(
             AccessDeniedException exception,
@@ -76,6 +86,15 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
                 exception.getMessage());
     }
 
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<Object> handleInvalidTokenException(
+            InvalidTokenException exception,
+            WebRequest request
+    ) {
+        return buildResponseEntity(HttpStatus.UNAUTHORIZED, "Invalid token",
+                List.of("Bad Request"), exception.getMessage());
+    }
+
     @ExceptionHandler(PendingPaymentException.class)
     public ResponseEntity<Object> handlePaymentException(
             PendingPaymentException exception,
@@ -30,6 +30,7 @@ public interface UserMapper {
 
     @Mapping(target = "password",
             expression = "java(encodePassword(requestDto.password(), passwordEncoder))")
+    @Mapping(target = "tokenVersion", ignore = true)
     User toModel(UserRegistrationRequestDto requestDto, @Context PasswordEncoder passwordEncoder);
 
     default String encodePassword(String rawPassword, PasswordEncoder encoder) {
@@ -42,6 +43,7 @@ public interface UserMapper {
     @Mapping(target = "password",
             expression = "java(updatePasswordIfPresent(requestDto.password(), user.getPassword(),"
                     + "passwordEncoder))")
+    @Mapping(target = "tokenVersion", ignore = true)
     void updateUserFromDto(UpdateCurrentUserRequestDto requestDto, @MappingTarget User user,
                            @Context PasswordEncoder passwordEncoder);
 
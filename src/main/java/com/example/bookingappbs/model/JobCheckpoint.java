@@ -0,0 +1,31 @@
+package com.example.bookingappbs.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Accessors(chain = true)
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    private String name;
+    @Column(nullable = false)
+    private LocalDate cursorDate;
+    @Column(nullable = false)
+    private long lastId;
+    @Column(nullable = false)
+    private long processed;
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package com.example.bookingappbs.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "stripe_webhook_events")
+public class StripeWebhookEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, unique = true)
+    private String eventId;
+    @Column(nullable = false)
+    private String eventType;
+    @Column(nullable = false)
+    private String sessionId;
+    @Column(nullable = false)
+    private int attempts;
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+    private LocalDateTime processedAt;
+    private LocalDateTime failedAt;
+}
@@ -1,8 +1,21 @@
 package com.example.bookingappbs.repository;
 
 import com.example.bookingappbs.model.Accommodation;
+import com.example.bookingappbs.model.Accommodation.Type;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AccommodationRepository extends JpaRepository<Accommodation, Long> {
     Accommodation getAccommodationById(Long id);
+
+    @Query("SELECT a FROM Accommodation a JOIN FETCH a.location l "
+            + "WHERE a.availability > 0 "
+            + "AND (:type IS NULL OR a.type = :type) "
+            + "AND (:city IS NULL OR LOWER(l.city) = LOWER(:city))")
+    Slice<Accommodation> findByTypeAndCityOptional(@Param("type") Type type,
+                                                   @Param("city") String city,
+                                                   Pageable pageable);
 }
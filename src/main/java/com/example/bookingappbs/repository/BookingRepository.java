@@ -1,15 +1,24 @@
 package com.example.bookingappbs.repository;
 
+import com.example.bookingappbs.dto.booking.AccommodationBookingCount;
+import com.example.bookingappbs.dto.booking.BookingStay;
+import com.example.bookingappbs.dto.booking.ExpiringBooking;
 import com.example.bookingappbs.model.Accommodation;
 import com.example.bookingappbs.model.Booking;
 import com.example.bookingappbs.model.Booking.Status;
 import com.example.bookingappbs.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -23,8 +32,80 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     boolean existsBookingByIdAndUser(Long id, User user);
 
-    List<Booking> findByStatusIsNotAndCheckOutDateLessThanEqual(
-            Status status, LocalDate checkOutDate);
+    // Locks the chunk so expire() updates exactly the selected rows; SKIP LOCKED (timeout -2)
+    // leaves bookings being changed concurrently to a later run
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT new com.example.bookingappbs.dto.booking.ExpiringBooking(
+                b.id, b.user.id, b.accommodation.id, b.checkInDate, b.checkOutDate, b.status)
+            FROM Booking b
+            WHERE b.status IN :statuses
+            AND b.checkOutDate <= :checkOutDate
+            AND b.id > :afterId
+            ORDER BY b.id
+            """)
+    List<ExpiringBooking> findExpiring(
+            @Param("statuses") Collection<Status> statuses,
+            @Param("checkOutDate") LocalDate checkOutDate,
+            @Param("afterId") long afterId,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("""
+            UPDATE Booking b SET b.status = :expiredStatus
+            WHERE b.id IN :ids
+            AND b.status IN :statuses
+            """)
+    int expire(
+            @Param("ids") Collection<Long> ids,
+            @Param("statuses") Collection<Status> statuses,
+            @Param("expiredStatus") Status expiredStatus
+    );
+
+    @Query("""
+            SELECT new com.example.bookingappbs.dto.booking.BookingStay(
+                b.accommodation.id, b.checkInDate, b.checkOutDate)
+            FROM Booking b
+            WHERE b.status NOT IN :excludedStatuses
+            AND b.checkOutDate > :fromDate
+            """)
+    List<BookingStay> findActiveStays(
+            @Param("excludedStatuses") List<Status> excludedStatuses,
+            @Param("fromDate") LocalDate fromDate
+    );
+
+    @Query("""
+            SELECT new com.example.bookingappbs.dto.booking.BookingStay(
+                b.accommodation.id, b.checkInDate, b.checkOutDate)
+            FROM Booking b
+            WHERE b.accommodation.id = :accommodationId
+            AND b.status NOT IN :excludedStatuses
+            AND b.checkOutDate > :fromDate
+            """)
+    List<BookingStay> findActiveStaysByAccommodationId(
+            @Param("accommodationId") Long accommodationId,
+            @Param("excludedStatuses") List<Status> excludedStatuses,
+            @Param("fromDate") LocalDate fromDate
+    );
+
+    @Query("""
+            SELECT new com.example.bookingappbs.dto.booking.AccommodationBookingCount(
+                b.accommodation.id, COUNT(b))
+            FROM Booking b
+            WHERE b.accommodation IN :accommodations
+            AND b.status NOT IN :excludedStatuses
+            AND b.checkInDate < :checkOutDate
+            AND b.checkOutDate > :checkInDate
+            GROUP BY b.accommodation.id
+            """)
+    List<AccommodationBookingCount> countOverlappingBookingsByAccommodation(
+            @Param("accommodations") Collection<Accommodation> accommodations,
+            @Param("checkInDate") LocalDate checkInDate,
+            @Param("checkOutDate") LocalDate checkOutDate,
+            @Param("excludedStatuses") List<Status> excludedStatuses
+    );
 
     @Query("""
             SELECT COUNT(b) FROM Booking b
@@ -0,0 +1,7 @@
+package com.example.bookingappbs.repository;
+
+import com.example.bookingappbs.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
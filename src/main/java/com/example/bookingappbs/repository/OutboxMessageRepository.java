@@ -0,0 +1,49 @@
+package com.example.bookingappbs.repository;
+
+import com.example.bookingappbs.model.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    // Insert-if-absent keeps a concurrent duplicate from failing the caller's transaction
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_outbox
+                (dedup_key, message, attempts, created_at, available_at)
+            VALUES (:dedupKey, :message, 0, :now, :now)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("dedupKey") String dedupKey,
+                       @Param("message") String message,
+                       @Param("now") LocalDateTime now);
+
+    // A lock timeout of -2 makes Hibernate render SKIP LOCKED where the dialect supports it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT m FROM OutboxMessage m
+            WHERE m.sentAt IS NULL
+            AND m.failedAt IS NULL
+            AND m.availableAt <= :now
+            ORDER BY m.id
+            """)
+    List<OutboxMessage> findDeliverable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.sentAt = :sentAt WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.sentAt < :sentBefore")
+    int deleteSentBefore(@Param("sentBefore") LocalDateTime sentBefore);
+}
@@ -7,13 +7,30 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Page<Payment> findByBooking_User_Id(long id, Pageable pageable);
 
     Optional<Payment> findBySessionId(String sessionId);
 
+    boolean existsBySessionId(String sessionId);
+
     List<Payment> findByStatus(Status status);
 
     long countByBooking_User_IdAndStatus(Long bookingUserId, Status status);
+
+    @Modifying
+    @Query("""
+            UPDATE Payment p SET p.status = :newStatus
+            WHERE p.sessionId = :sessionId
+            AND p.status = :expectedStatus
+            """)
+    int updateStatusIfCurrent(
+            @Param("sessionId") String sessionId,
+            @Param("expectedStatus") Status expectedStatus,
+            @Param("newStatus") Status newStatus
+    );
 }
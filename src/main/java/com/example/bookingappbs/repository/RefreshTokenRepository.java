@@ -0,0 +1,23 @@
+package com.example.bookingappbs.repository;
+
+import com.example.bookingappbs.model.RefreshToken;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+    @Modifying
+    @Query("""
+            UPDATE RefreshToken t SET t.usedAt = :usedAt
+            WHERE t.id = :id
+            AND t.usedAt IS NULL
+            AND t.expiresAt > :usedAt
+            """)
+    int consume(@Param("id") String id, @Param("usedAt") LocalDateTime usedAt);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :expiredBefore")
+    int deleteExpiredBefore(@Param("expiredBefore") LocalDateTime expiredBefore);
+}
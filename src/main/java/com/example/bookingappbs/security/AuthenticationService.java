@@ -1,24 +1,90 @@
 package com.example.bookingappbs.security;
 
+import com.example.bookingappbs.dto.user.RefreshTokenRequestDto;
 import com.example.bookingappbs.dto.user.UserLoginRequestDto;
 import com.example.bookingappbs.dto.user.UserLoginResponseDto;
+import com.example.bookingappbs.exception.InvalidTokenException;
+import com.example.bookingappbs.model.RefreshToken;
+import com.example.bookingappbs.model.User;
+import com.example.bookingappbs.repository.RefreshTokenRepository;
+import com.example.bookingappbs.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
+@Transactional
 public class AuthenticationService {
+    private static final Logger logger = LogManager.getLogger(AuthenticationService.class);
+
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final PrincipalCache principalCache;
 
     public UserLoginResponseDto authenticate(UserLoginRequestDto requestDto) {
         final Authentication authentication = authenticationManager
                 .authenticate(new UsernamePasswordAuthenticationToken(
                         requestDto.email(), requestDto.password()));
-        String token = jwtUtil.generateToken(authentication.getName());
-        return new UserLoginResponseDto(token);
+        return issueTokens((User) authentication.getPrincipal());
+    }
+
+    // A reused refresh token still revokes the user's sessions when the request is rejected
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public UserLoginResponseDto refresh(RefreshTokenRequestDto requestDto) {
+        Claims claims;
+        try {
+            claims = jwtUtil.verify(requestDto.refreshToken());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Expired or invalid refresh token");
+        }
+        if (!jwtUtil.isRefreshToken(claims) || claims.getId() == null) {
+            throw new InvalidTokenException("Token is not a refresh token");
+        }
+        User user = userRepository.findUserByEmailWithRoles(claims.getSubject())
+                .orElseThrow(() -> new InvalidTokenException("Refresh token owner not found"));
+        Integer tokenVersion = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+        if (tokenVersion == null || tokenVersion != user.getTokenVersion()) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+        if (refreshTokenRepository.consume(claims.getId(), LocalDateTime.now()) == 0) {
+            logger.warn("Refresh token reuse detected for user ID: {}. Revoking all sessions.",
+                    user.getId());
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            userRepository.save(user);
+            principalCache.evict(user.getEmail());
+            throw new InvalidTokenException("Refresh token has already been used");
+        }
+        return issueTokens(user);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-token.purge-cron}")
+    public void purgeExpiredRefreshTokens() {
+        int purged = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        logger.info("Purged {} expired refresh tokens.", purged);
+    }
+
+    private UserLoginResponseDto issueTokens(User user) {
+        String tokenId = UUID.randomUUID().toString();
+        refreshTokenRepository.save(new RefreshToken()
+                .setId(tokenId)
+                .setUserId(user.getId())
+                .setExpiresAt(LocalDateTime.now()
+                        .plus(jwtUtil.refreshExpiration(), ChronoUnit.MILLIS)));
+        return new UserLoginResponseDto(jwtUtil.generateAccessToken(user),
+                jwtUtil.generateRefreshToken(user, tokenId));
     }
 }
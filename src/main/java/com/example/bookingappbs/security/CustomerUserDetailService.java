@@ -12,11 +12,12 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class CustomerUserDetailService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findUserByEmailWithRoles(email)
+        return principalCache.get(email, key -> userRepository.findUserByEmailWithRoles(key)
                 .orElseThrow(() ->
-                        new EntityNotFoundException("Can not find user by email: " + email));
+                        new EntityNotFoundException("Can not find user by email: " + key)));
     }
 }
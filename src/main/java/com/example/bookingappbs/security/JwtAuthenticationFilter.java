@@ -1,5 +1,7 @@
 package com.example.bookingappbs.security;
 
+import com.example.bookingappbs.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,16 +32,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.isValidToken(token)) {
-            String username = jwtUtil.getUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null) {
+            Claims claims = jwtUtil.verify(token);
+            if (!jwtUtil.isRefreshToken(claims)) {
+                boolean useClaims = jwtUtil.isStateless() && jwtUtil.hasPrincipalClaims(claims);
+                UserDetails userDetails = useClaims
+                        ? jwtUtil.toPrincipal(claims)
+                        : userDetailsService.loadUserByUsername(claims.getSubject());
+                if (!useClaims && isRevoked(claims, userDetails)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED,
+                            "Token has been revoked");
+                    return;
+                }
+                Authentication authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    private boolean isRevoked(Claims claims, UserDetails userDetails) {
+        if (!(userDetails instanceof User user)) {
+            return false;
+        }
+        Integer version = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+        return (version == null ? 0 : version) < user.getTokenVersion();
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(TOKEN_HEADER)) {
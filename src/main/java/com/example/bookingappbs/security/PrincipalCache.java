@@ -0,0 +1,65 @@
+package com.example.bookingappbs.security;
+
+import com.example.bookingappbs.model.User;
+import com.example.bookingappbs.service.RedisService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class PrincipalCache {
+    public static final String EVICTION_CHANNEL = "principal-cache::eviction";
+    private static final Logger logger = LogManager.getLogger(PrincipalCache.class);
+
+    private final Cache<String, User> cache;
+    private final RedisService redisService;
+
+    public PrincipalCache(
+            @Value("${security.principal-cache.max-size}") long maxSize,
+            @Value("${security.principal-cache.ttl}") Duration ttl,
+            RedisService redisService,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.redisService = redisService;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    public User get(String email, Function<String, User> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void evict(String email) {
+        logger.debug("Evicting cached principal for email: {}", email);
+        // Evicting before commit would let a concurrent request reload the old row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            cache.invalidate(email);
+                        }
+                    });
+        } else {
+            cache.invalidate(email);
+        }
+        redisService.publish(EVICTION_CHANNEL, email);
+    }
+
+    public void evictLocally(String email) {
+        cache.invalidate(email);
+    }
+}
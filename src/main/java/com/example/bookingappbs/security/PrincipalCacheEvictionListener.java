@@ -0,0 +1,25 @@
+package com.example.bookingappbs.security;
+
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheEvictionListener implements MessageListener {
+    private static final Logger logger =
+            LogManager.getLogger(PrincipalCacheEvictionListener.class);
+
+    private final PrincipalCache principalCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String email = new String(message.getBody(), StandardCharsets.UTF_8);
+        logger.debug("Received principal cache eviction for email: {}", email);
+        principalCache.evictLocally(email);
+    }
+}
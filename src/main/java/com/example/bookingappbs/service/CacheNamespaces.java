@@ -0,0 +1,47 @@
+package com.example.bookingappbs.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheNamespaces {
+    private static final String SEPARATOR = "::";
+
+    private final Duration defaultTtl;
+    private final Map<String, Duration> namespaceTtls = new LinkedHashMap<>();
+
+    public CacheNamespaces(
+            @Value("${redis.cache.ttl}") Duration defaultTtl,
+            @Value("#{${redis.cache.namespace-ttl}}") Map<String, String> namespaceTtls
+    ) {
+        this.defaultTtl = defaultTtl;
+        namespaceTtls.entrySet().stream()
+                .sorted(Comparator.comparingInt(
+                        (Map.Entry<String, String> entry) -> entry.getKey().length()).reversed())
+                .forEach(entry -> this.namespaceTtls.put(
+                        entry.getKey(), Duration.parse(entry.getValue())));
+    }
+
+    public Set<String> namespaces() {
+        return namespaceTtls.keySet();
+    }
+
+    public String namespaceOf(String key) {
+        for (String namespace : namespaceTtls.keySet()) {
+            if (key.equals(namespace) || key.startsWith(namespace + SEPARATOR)) {
+                return namespace;
+            }
+        }
+        int separatorIndex = key.indexOf(SEPARATOR);
+        return separatorIndex > 0 ? key.substring(0, separatorIndex) : key;
+    }
+
+    public Duration ttlOf(String key) {
+        return namespaceTtls.getOrDefault(namespaceOf(key), defaultTtl);
+    }
+}
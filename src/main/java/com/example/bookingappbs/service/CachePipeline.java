@@ -0,0 +1,40 @@
+package com.example.bookingappbs.service;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache writes collected by {@link RedisService#pipelined} and sent to Redis in a single
+ * pipeline once the surrounding transaction commits. A later command on the same key
+ * replaces an earlier one.
+ */
+public class CachePipeline {
+    private final Map<String, Object> saves = new LinkedHashMap<>();
+    private final Set<String> deletes = new LinkedHashSet<>();
+
+    public CachePipeline save(String key, Object value) {
+        deletes.remove(key);
+        saves.put(key, value);
+        return this;
+    }
+
+    public CachePipeline delete(String key) {
+        saves.remove(key);
+        deletes.add(key);
+        return this;
+    }
+
+    boolean isEmpty() {
+        return saves.isEmpty() && deletes.isEmpty();
+    }
+
+    Map<String, Object> saves() {
+        return saves;
+    }
+
+    Set<String> deletes() {
+        return deletes;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bookingappbs.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NearCache {
+    public static final String INVALIDATION_CHANNEL = "near-cache::invalidation";
+    public static final String INVALIDATION_SEPARATOR = "\n";
+    public static final String INVALIDATE_ALL = "*";
+
+    private final Cache<String, Entry> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public NearCache(
+            @Value("${redis.near-cache.max-weight}") long maxWeight,
+            @Value("${redis.near-cache.ttl}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? (T) entry.value() : null;
+    }
+
+    public void put(String key, Object value, int weight) {
+        cache.put(key, new Entry(value, key.length() + weight));
+    }
+
+    /**
+     * Stores a value read from Redis unless an invalidation ran after {@code version} was taken.
+     * The counter is bumped before entries are removed, so a put racing an invalidation is
+     * either removed by it or sees the new version and removes itself.
+     */
+    public boolean putIfNotInvalidatedSince(String key, Object value, int weight, long version) {
+        if (invalidations.get() != version) {
+            return false;
+        }
+        put(key, value, weight);
+        if (invalidations.get() != version) {
+            cache.invalidate(key);
+            return false;
+        }
+        return true;
+    }
+
+    public long invalidationVersion() {
+        return invalidations.get();
+    }
+
+    public void invalidate(Collection<String> keys) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(keys);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private record Entry(Object value, int weight) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bookingappbs.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class NearCacheInvalidationListener implements MessageListener {
+    private static final Logger logger =
+            LogManager.getLogger(NearCacheInvalidationListener.class);
+
+    private final NearCache nearCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        logger.debug("Received near cache invalidation for keys: {}", body);
+        if (NearCache.INVALIDATE_ALL.equals(body)) {
+            nearCache.invalidateAll();
+            return;
+        }
+        nearCache.invalidate(Arrays.asList(body.split(NearCache.INVALIDATION_SEPARATOR)));
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.bookingappbs.service;
+
+import com.example.bookingappbs.exception.CacheUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RedisCircuitBreaker {
+    private static final Logger logger = LogManager.getLogger(RedisCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+    private final Semaphore bulkhead;
+    private final MeterRegistry meterRegistry;
+    private final boolean[] outcomes;
+    private int recordedCalls;
+    private int failedCalls;
+    private int nextOutcome;
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private volatile Runnable recoveryListener = () -> { };
+
+    public RedisCircuitBreaker(
+            @Value("${redis.circuit-breaker.window-size}") int windowSize,
+            @Value("${redis.circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+            @Value("${redis.circuit-breaker.slow-call-threshold}") Duration slowCallThreshold,
+            @Value("${redis.circuit-breaker.open-duration}") Duration openDuration,
+            @Value("${redis.bulkhead.max-concurrent-calls}") int maxConcurrentCalls,
+            MeterRegistry meterRegistry
+    ) {
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.openDurationNanos = openDuration.toNanos();
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.meterRegistry = meterRegistry;
+        this.outcomes = new boolean[windowSize];
+        Gauge.builder("cache.redis.circuit.state", this, breaker -> breaker.state.ordinal())
+                .register(meterRegistry);
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public void onRecovery(Runnable listener) {
+        this.recoveryListener = listener;
+    }
+
+    public <T> T execute(String command, Supplier<T> call) {
+        if (!tryEnter()) {
+            reject(command, "open");
+        }
+        if (!bulkhead.tryAcquire()) {
+            releaseProbe();
+            reject(command, "bulkhead");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onOutcome(System.nanoTime() - start > slowCallThresholdNanos);
+            return result;
+        } catch (RuntimeException e) {
+            onOutcome(true);
+            throw new CacheUnavailableException("Redis command " + command + " failed", e);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private synchronized boolean tryEnter() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            logger.info("Probing Redis after {} ms in the open state.",
+                    Duration.ofNanos(openDurationNanos).toMillis());
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void releaseProbe() {
+        // Restarting the open period keeps every later call from becoming a probe at once
+        if (state == State.HALF_OPEN) {
+            open();
+        }
+    }
+
+    private void onOutcome(boolean failed) {
+        if (!recordOutcome(failed)) {
+            return;
+        }
+        // The breaker stays half-open until the listener has fenced off stale entries
+        try {
+            recoveryListener.run();
+        } catch (RuntimeException e) {
+            logger.error("Redis recovery handling failed. Keeping the circuit open: {}",
+                    e.getMessage());
+            reopen();
+            return;
+        }
+        close();
+    }
+
+    private synchronized boolean recordOutcome(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+                return false;
+            }
+            return true;
+        }
+        if (state == State.OPEN) {
+            return false;
+        }
+        if (recordedCalls == windowSize && outcomes[nextOutcome]) {
+            failedCalls--;
+        }
+        outcomes[nextOutcome] = failed;
+        nextOutcome = (nextOutcome + 1) % windowSize;
+        recordedCalls = Math.min(recordedCalls + 1, windowSize);
+        if (failed) {
+            failedCalls++;
+        }
+        if (recordedCalls == windowSize
+                && (double) failedCalls / windowSize >= failureRateThreshold) {
+            logger.warn("{} of the last {} Redis calls failed or were slow. Opening the circuit.",
+                    failedCalls, windowSize);
+            open();
+        }
+        return false;
+    }
+
+    private synchronized void close() {
+        logger.info("Redis recovered. Closing the circuit breaker.");
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private synchronized void reopen() {
+        open();
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        recordedCalls = 0;
+        failedCalls = 0;
+        nextOutcome = 0;
+        Arrays.fill(outcomes, false);
+    }
+
+    private void reject(String command, String reason) {
+        meterRegistry.counter("cache.redis.rejections", "reason", reason).increment();
+        throw new CacheUnavailableException("Redis command " + command + " rejected: " + reason);
+    }
+}
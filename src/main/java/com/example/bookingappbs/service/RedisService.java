@@ -1,89 +1,738 @@
 package com.example.bookingappbs.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.bookingappbs.config.AsyncConfig;
+import com.example.bookingappbs.dto.cache.CacheNamespaceStats;
+import com.example.bookingappbs.exception.CacheUnavailableException;
+import com.example.bookingappbs.service.codec.CacheCodec;
+import com.example.bookingappbs.service.codec.JsonCacheCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class RedisService {
     private static final Logger logger = LogManager.getLogger(RedisService.class);
+    private static final String GENERATION_KEY_SUFFIX = "::generation";
+    private static final String EPOCH_NAMESPACE = "cache::epoch";
+    private static final byte ENVELOPE_VERSION = 2;
+    private static final int EPOCH_OFFSET = 2;
+    private static final int ENVELOPE_LENGTH = EPOCH_OFFSET + Long.BYTES;
+    private static final byte EMPTY_RESULT_MARKER = 0;
+    private static final String LEASE_KEY_SUFFIX = "::lease";
+    private static final String PAGE_SIZES_KEY_SUFFIX = "::page-sizes";
+    private static final int SCAN_BATCH_SIZE = 1000;
+    private static final long LEASE_POLL_INTERVAL_MILLIS = 50;
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+    private static final RedisScript<Long> ADMIT_PAGE_SIZE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('sismember', KEYS[1], ARGV[1]) == 0 then "
+                    + "if redis.call('scard', KEYS[1]) >= tonumber(ARGV[2]) then return 0 end "
+                    + "redis.call('sadd', KEYS[1], ARGV[1]) end "
+                    + "redis.call('pexpire', KEYS[1], ARGV[3]) return 1", Long.class);
+
+    @Value("${redis.cache.empty-result-ttl}")
+    private Duration emptyResultTtl;
+    @Value("${redis.cache.codec}")
+    private String codecName;
+    @Value("${redis.cache.lease-ttl}")
+    private Duration leaseTtl;
+    @Value("${redis.cache.peer-wait}")
+    private Duration peerWait;
+    @Value("${redis.cache.early-refresh-window}")
+    private Duration earlyRefreshWindow;
+    @Value("${redis.cache.max-page-size-variants}")
+    private int maxPageSizeVariants;
+    @Value("${redis.cache.page-size-admission-ttl}")
+    private Duration pageSizeAdmissionTtl;
+    @Value("${redis.cache.page-size-decision-ttl}")
+    private Duration pageSizeDecisionTtl;
+    @Value("${redis.cache.stats.sample-size}")
+    private int statsSampleSize;
+
+    private final Map<String, Map<Integer, PageSizeDecision>> admittedPageSizes =
+            new ConcurrentHashMap<>();
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final List<CacheCodec> cacheCodecs;
+    private final JsonCacheCodec jsonCacheCodec;
+    private final MeterRegistry meterRegistry;
+    private final NearCache nearCache;
+    private final SingleFlight singleFlight;
+    private final CacheNamespaces cacheNamespaces;
+    private final RedisCircuitBreaker circuitBreaker;
+    @Qualifier(AsyncConfig.CACHE_MAINTENANCE_EXECUTOR)
+    private final Executor cacheMaintenanceExecutor;
+
+    @PostConstruct
+    public void registerRecoveryListener() {
+        circuitBreaker.onRecovery(this::startNewEpoch);
+    }
 
     public <T> void save(String key, T value) {
         logger.info("Saving to Redis with key: {}", key);
         try {
-            String json = objectMapper.writeValueAsString(value);
-            redisTemplate.opsForValue().set(key, json);
-            logger.debug("Value saved to Redis for key: {}", key);
-        } catch (JsonProcessingException e) {
+            byte[] payload = serialize(value);
+            Duration ttl = ttlOf(key, value);
+            RedisSerializer<String> keySerializer = redisTemplate.getStringSerializer();
+            afterCommit("save " + key, () -> {
+                timed("set", () -> redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                        connection.stringCommands().set(keySerializer.serialize(key), payload,
+                                Expiration.from(ttl), SetOption.upsert())));
+                nearCache.put(key, value, payload.length);
+                // Peers drop their stale copy, this instance re-reads once its own message lands
+                publishNearCacheInvalidation(List.of(key));
+                logger.debug("Value saved to Redis for key: {}", key);
+            });
+        } catch (IOException e) {
             throw new RuntimeException("Error saving to Redis: " + e);
         }
     }
 
-    @Transactional(readOnly = true)
+    public <T> void saveAll(Map<String, T> values) {
+        pipelined(pipeline -> values.forEach(pipeline::save));
+    }
+
+    public void pipelined(Consumer<CachePipeline> commands) {
+        CachePipeline pipeline = new CachePipeline();
+        commands.accept(pipeline);
+        if (pipeline.isEmpty()) {
+            return;
+        }
+        logger.info("Sending {} saves and {} deletes to Redis in one pipeline.",
+                pipeline.saves().size(), pipeline.deletes().size());
+        Map<String, byte[]> payloads = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Object> entry : pipeline.saves().entrySet()) {
+                payloads.put(entry.getKey(), serialize(entry.getValue()));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error saving to Redis: " + e);
+        }
+        Map<String, Object> values = new LinkedHashMap<>(pipeline.saves());
+        List<String> deletes = List.copyOf(pipeline.deletes());
+        RedisSerializer<String> keySerializer = redisTemplate.getStringSerializer();
+        afterCommit("pipeline of " + (payloads.size() + deletes.size()) + " commands", () -> {
+            timed("pipeline", () -> redisTemplate.executePipelined(
+                    (RedisCallback<Object>) connection -> {
+                        payloads.forEach((key, payload) -> connection.stringCommands()
+                                .set(keySerializer.serialize(key), payload,
+                                        Expiration.from(ttlOf(key, values.get(key))),
+                                        SetOption.upsert()));
+                        if (!deletes.isEmpty()) {
+                            connection.keyCommands().del(deletes.stream()
+                                    .map(keySerializer::serialize)
+                                    .toArray(byte[][]::new));
+                        }
+                        return null;
+                    }));
+            payloads.forEach((key, payload) ->
+                    nearCache.put(key, values.get(key), payload.length));
+            nearCache.invalidate(deletes);
+            List<String> changedKeys = new ArrayList<>(payloads.keySet());
+            changedKeys.addAll(deletes);
+            publishNearCacheInvalidation(changedKeys);
+        });
+    }
+
     public <T> T find(String key, Class<T> clazz) {
         logger.info("Finding from Redis with key: {}", key);
-        String json = redisTemplate.opsForValue().get(key);
-        if (json == null) {
+        T cachedValue = nearCache.get(key);
+        if (cachedValue != null) {
+            recordLookup(key, "near", true);
+            return cachedValue;
+        }
+        long nearCacheVersion = nearCache.invalidationVersion();
+        byte[] payload = findPayload(key);
+        if (payload == null || payload[1] == EMPTY_RESULT_MARKER) {
             logger.debug("No value found in Redis for key: {}", key);
             return null;
         }
+        return decodeValue(key, payload, clazz, nearCacheVersion);
+    }
+
+    public <T> Map<String, T> findMany(Collection<String> keys, Class<T> clazz) {
+        logger.info("Finding {} keys from Redis in one round trip.", keys.size());
+        Map<String, T> values = new LinkedHashMap<>();
+        List<String> missingKeys = new ArrayList<>();
+        for (String key : keys) {
+            T cachedValue = nearCache.get(key);
+            if (cachedValue != null) {
+                recordLookup(key, "near", true);
+                values.put(key, cachedValue);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return values;
+        }
+
+        RedisSerializer<String> keySerializer = redisTemplate.getStringSerializer();
+        byte[][] rawKeys = missingKeys.stream()
+                .map(keySerializer::serialize)
+                .toArray(byte[][]::new);
+        long nearCacheVersion = nearCache.invalidationVersion();
+        List<byte[]> payloads;
         try {
-            T value = objectMapper.readValue(json, clazz);
-            logger.debug("Value found in Redis for key {}: {}", key, value);
-            return value;
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error deserializing from Redis: " + e);
+            payloads = timed("mget", () -> redisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection ->
+                            connection.stringCommands().mGet(rawKeys)));
+        } catch (CacheUnavailableException e) {
+            logger.debug("Redis unavailable, skipping {} keys: {}", rawKeys.length, e.getMessage());
+            return values;
         }
+        long epoch = currentEpoch();
+        for (int i = 0; i < missingKeys.size(); i++) {
+            String key = missingKeys.get(i);
+            byte[] payload = payloads != null ? readablePayload(payloads.get(i), epoch) : null;
+            recordLookup(key, "redis", payload != null);
+            if (payload != null && payload[1] != EMPTY_RESULT_MARKER) {
+                T value = decodeValue(key, payload, clazz, nearCacheVersion);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+        }
+        return values;
     }
 
-    @Transactional(readOnly = true)
     public <T> List<T> findAll(String key, Class<T> clazz) {
         logger.info("Finding all from Redis with key: {}", key);
-        String json = redisTemplate.opsForValue().get(key);
-        if (json == null) {
+        List<T> cachedValues = nearCache.get(key);
+        if (cachedValues != null) {
+            recordLookup(key, "near", true);
+            return cachedValues;
+        }
+        byte[] payload = findPayload(key);
+        if (payload == null) {
             logger.debug("No list found in Redis for key: {}", key);
+            return null;
+        }
+        return decodeList(key, payload, clazz);
+    }
+
+    public <T> List<T> findPageOrLoad(
+            String key,
+            Pageable pageable,
+            Class<T> clazz,
+            Supplier<List<T>> loader
+    ) {
+        String namespace = cacheNamespaces.namespaceOf(key);
+        if (!isCacheablePageSize(namespace, pageable.getPageSize())) {
+            logger.debug("Page size {} is not cached for namespace {}. Loading directly.",
+                    pageable.getPageSize(), namespace);
+            meterRegistry.counter("cache.bypasses", "namespace", namespace).increment();
+            return loader.get();
+        }
+        return findAllOrLoad(key, clazz, loader);
+    }
+
+    public <T> List<T> findAllOrLoad(String key, Class<T> clazz, Supplier<List<T>> loader) {
+        logger.info("Finding all from Redis with key: {}", key);
+        List<T> cachedValues = nearCache.get(key);
+        if (cachedValues != null) {
+            recordLookup(key, "near", true);
+            return cachedValues;
+        }
+        return singleFlight.load(key, () -> {
+            try {
+                return findAllOrLoadFromRedis(key, clazz, loader);
+            } catch (CacheUnavailableException e) {
+                logger.debug("Redis unavailable for key {}. Loading directly: {}",
+                        key, e.getMessage());
+                return loader.get();
+            }
+        });
+    }
+
+    public void delete(String key) {
+        logger.info("Deleting from Redis with key: {}", key);
+        afterCommit("delete " + key, () -> {
+            timed("del", () -> redisTemplate.delete(key));
+            invalidateNearCache(List.of(key));
+            logger.debug("Key {} deleted from Redis.", key);
+        });
+    }
+
+    public void deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        logger.info("Deleting {} keys from Redis.", keys.size());
+        List<String> keysToDelete = List.copyOf(keys);
+        afterCommit("delete of " + keysToDelete.size() + " keys", () -> {
+            timed("del", () -> redisTemplate.delete(keysToDelete));
+            invalidateNearCache(keysToDelete);
+        });
+    }
+
+    public void publish(String channel, String message) {
+        afterCommit("publish to " + channel, () -> timed("publish",
+                () -> redisTemplate.convertAndSend(channel, message)));
+    }
+
+    public List<Long> currentGenerations(List<String> namespaces) {
+        List<Long> generations = new ArrayList<>(namespaces.size());
+        List<String> missingKeys = new ArrayList<>();
+        for (String namespace : namespaces) {
+            Long generation = nearCache.get(namespace + GENERATION_KEY_SUFFIX);
+            generations.add(generation);
+            if (generation == null) {
+                missingKeys.add(namespace + GENERATION_KEY_SUFFIX);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return generations;
+        }
+
+        long nearCacheVersion = nearCache.invalidationVersion();
+        List<String> loaded;
+        try {
+            loaded = timed("mget", () -> redisTemplate.opsForValue().multiGet(missingKeys));
+        } catch (CacheUnavailableException e) {
+            logger.debug("Redis unavailable, using throwaway generations: {}", e.getMessage());
+            generations.replaceAll(generation ->
+                    generation != null ? generation : unknownGeneration());
+            return generations;
+        }
+        int loadedIndex = 0;
+        for (int i = 0; i < generations.size(); i++) {
+            if (generations.get(i) != null) {
+                continue;
+            }
+            String value = loaded != null ? loaded.get(loadedIndex) : null;
+            long generation = value != null ? Long.parseLong(value) : 0L;
+            nearCache.putIfNotInvalidatedSince(missingKeys.get(loadedIndex), generation,
+                    Long.BYTES, nearCacheVersion);
+            generations.set(i, generation);
+            loadedIndex++;
+        }
+        return generations;
+    }
+
+    public long currentGeneration(String namespace) {
+        return currentGenerations(List.of(namespace)).get(0);
+    }
+
+    public void incrementGeneration(String namespace) {
+        logger.info("Invalidating Redis cache namespace: {}", namespace);
+        afterCommit("invalidation of " + namespace, () -> {
+            Long generation = timed("incr", () -> redisTemplate.opsForValue()
+                    .increment(namespace + GENERATION_KEY_SUFFIX));
+            invalidateNearCache(List.of(namespace + GENERATION_KEY_SUFFIX));
+            recordEviction(namespace);
+            logger.debug("Namespace {} moved to generation {}.", namespace, generation);
+        });
+    }
+
+    public void incrementGenerations(Collection<String> namespaces) {
+        logger.info("Invalidating {} Redis cache namespaces: {}", namespaces.size(), namespaces);
+        List<String> namespacesToInvalidate = List.copyOf(namespaces);
+        RedisSerializer<String> keySerializer = redisTemplate.getStringSerializer();
+        afterCommit("invalidation of " + namespacesToInvalidate, () -> {
+            timed("pipelined-incr", () -> redisTemplate.executePipelined(
+                    (RedisCallback<Object>) connection -> {
+                        for (String namespace : namespacesToInvalidate) {
+                            connection.stringCommands().incr(
+                                    keySerializer.serialize(namespace + GENERATION_KEY_SUFFIX));
+                        }
+                        return null;
+                    }));
+            invalidateNearCache(namespacesToInvalidate.stream()
+                    .map(namespace -> namespace + GENERATION_KEY_SUFFIX)
+                    .toList());
+            namespacesToInvalidate.forEach(this::recordEviction);
+        });
+    }
+
+    public CacheNamespaceStats namespaceStats(String namespace) {
+        long keys = 0;
+        long sampledKeys = 0;
+        long sampledBytes = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(namespace + "::*")
+                .count(SCAN_BATCH_SIZE)
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                keys++;
+                if (sampledKeys < statsSampleSize) {
+                    Long usage = memoryUsage(key);
+                    if (usage != null) {
+                        sampledKeys++;
+                        sampledBytes += usage;
+                    }
+                }
+            }
+        }
+        long estimatedBytes = sampledKeys > 0 ? sampledBytes * keys / sampledKeys : 0;
+        return new CacheNamespaceStats(cacheNamespaces.ttlOf(namespace), keys, sampledKeys,
+                sampledBytes, estimatedBytes);
+    }
+
+    private void startNewEpoch() {
+        // Runs while the breaker is still half-open, so it bypasses it and any failure
+        // propagates to keep the circuit open until the epoch bump succeeds
+        Long epoch = recorded("incr", () -> redisTemplate.opsForValue()
+                .increment(EPOCH_NAMESPACE + GENERATION_KEY_SUFFIX));
+        nearCache.invalidateAll();
+        recorded("publish", () -> redisTemplate.convertAndSend(NearCache.INVALIDATION_CHANNEL,
+                NearCache.INVALIDATE_ALL));
+        logger.info("Cache moved to epoch {}. Entries written before the outage are ignored.",
+                epoch);
+    }
+
+    private boolean isCacheablePageSize(String namespace, int pageSize) {
+        Map<Integer, PageSizeDecision> pageSizes =
+                admittedPageSizes.computeIfAbsent(namespace, ignored -> new ConcurrentHashMap<>());
+        long now = System.nanoTime();
+        PageSizeDecision decision = pageSizes.get(pageSize);
+        if (decision != null && now - decision.decidedAtNanos() < pageSizeDecisionTtl.toNanos()) {
+            return decision.admitted();
+        }
+        // Asking again also extends the admitted set's TTL, so sizes still in use stay
+        // admitted while abandoned ones age out and free their slots
+        boolean admitted;
+        try {
+            admitted = Long.valueOf(1).equals(timed("admit-page-size", () -> redisTemplate
+                    .execute(ADMIT_PAGE_SIZE_SCRIPT, List.of(namespace + PAGE_SIZES_KEY_SUFFIX),
+                            String.valueOf(pageSize), String.valueOf(maxPageSizeVariants),
+                            String.valueOf(pageSizeAdmissionTtl.toMillis()))));
+        } catch (CacheUnavailableException e) {
+            logger.debug("Redis unavailable, not caching page size {}: {}",
+                    pageSize, e.getMessage());
+            return false;
+        }
+        pageSizes.put(pageSize, new PageSizeDecision(admitted, now));
+        return admitted;
+    }
+
+    private Long memoryUsage(String key) {
+        byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
+        return redisTemplate.execute((RedisCallback<Long>) connection -> (Long) connection
+                .execute("MEMORY", "USAGE".getBytes(StandardCharsets.UTF_8), rawKey));
+    }
+
+    private <T> List<T> findAllOrLoadFromRedis(
+            String key,
+            Class<T> clazz,
+            Supplier<List<T>> loader
+    ) {
+        byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
+        List<Object> results = timed("get-pttl", () -> redisTemplate.executePipelined(
+                (RedisCallback<Object>) connection -> {
+                    connection.stringCommands().get(rawKey);
+                    connection.keyCommands().pTtl(rawKey);
+                    return null;
+                }, RedisSerializer.byteArray()));
+        byte[] payload = readablePayload((byte[]) results.get(0), currentEpoch());
+        recordLookup(key, "redis", payload != null);
+        List<T> values = payload != null ? decodeList(key, payload, clazz) : null;
+
+        if (values != null) {
+            if (!shouldRefreshEarly((Long) results.get(1))) {
+                return values;
+            }
+            String leaseToken = tryAcquireLease(key);
+            if (leaseToken == null) {
+                return values;
+            }
+            logger.debug("Refreshing Redis key {} ahead of expiry.", key);
+            return loadAndSave(key, loader, leaseToken);
+        }
+
+        String leaseToken = tryAcquireLease(key);
+        if (leaseToken == null) {
+            List<T> peerValues = awaitPeerLoad(key, clazz);
+            if (peerValues != null) {
+                return peerValues;
+            }
+        }
+        return loadAndSave(key, loader, leaseToken);
+    }
+
+    private <T> List<T> loadAndSave(String key, Supplier<List<T>> loader, String leaseToken) {
+        try {
+            List<T> values = loader.get();
+            save(key, values);
+            meterRegistry.counter("cache.loads", "namespace", cacheNamespaces.namespaceOf(key))
+                    .increment();
+            return values;
+        } finally {
+            if (leaseToken != null) {
+                // The save above is deferred to commit, so waiting peers must not be
+                // released before it has run or they wake up to a miss
+                afterCompletion("lease release " + key, () -> releaseLease(key, leaseToken));
+            }
+        }
+    }
+
+    private String tryAcquireLease(String key) {
+        String leaseToken = UUID.randomUUID().toString();
+        Boolean acquired = timed("set-nx", () -> redisTemplate.opsForValue()
+                .setIfAbsent(key + LEASE_KEY_SUFFIX, leaseToken, leaseTtl));
+        return Boolean.TRUE.equals(acquired) ? leaseToken : null;
+    }
+
+    private void releaseLease(String key, String leaseToken) {
+        try {
+            timed("release-lease", () -> redisTemplate.execute(RELEASE_LEASE_SCRIPT,
+                    List.of(key + LEASE_KEY_SUFFIX), leaseToken));
+        } catch (CacheUnavailableException e) {
+            logger.debug("Lease on key {} left to expire: {}", key, e.getMessage());
+        }
+    }
+
+    private <T> List<T> awaitPeerLoad(String key, Class<T> clazz) {
+        logger.debug("Another node is loading key {}. Waiting for its result.", key);
+        long deadline = System.currentTimeMillis() + peerWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            byte[] payload = readablePayload(findRawPayload(key), currentEpoch());
+            if (payload != null) {
+                return decodeList(key, payload, clazz);
+            }
+        }
+        logger.warn("Another node is still loading key {} after {}. Loading directly.",
+                key, peerWait);
+        return null;
+    }
+
+    private boolean shouldRefreshEarly(Long remainingTtlMillis) {
+        if (remainingTtlMillis == null || remainingTtlMillis <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return earlyRefreshWindow.toMillis() * -Math.log(random) >= remainingTtlMillis;
+    }
+
+    private <T> List<T> decodeList(String key, byte[] payload, Class<T> clazz) {
+        if (payload[1] == EMPTY_RESULT_MARKER) {
+            nearCache.put(key, Collections.emptyList(), payload.length);
+            logger.debug("Empty result cached in Redis for key {}", key);
             return Collections.emptyList();
         }
         try {
-            List<T> values = objectMapper.readValue(json, objectMapper
-                    .getTypeFactory()
-                    .constructCollectionType(List.class, clazz));
+            List<T> values = codecOf(payload).decodeList(payload, ENVELOPE_LENGTH, clazz);
+            if (values == null) {
+                logger.debug("Cached list for key {} has an outdated schema.", key);
+                return null;
+            }
+            nearCache.put(key, values, payload.length);
             logger.debug("List found in Redis for key {}, size: {}", key, values.size());
             return values;
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             logger.error("Error deserializing list from Redis with key {}: {}",
                     key, e.getMessage());
-            return Collections.emptyList();
+            return null;
         }
     }
 
-    public void delete(String key) {
-        logger.info("Deleting from Redis with key: {}", key);
-        redisTemplate.delete(key);
-        logger.debug("Key {} deleted from Redis.", key);
+    private void afterCommit(String description, Runnable operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runQuietly(description, operation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runQuietly(description, operation);
+            }
+        });
+    }
+
+    private void afterCompletion(String description, Runnable operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runQuietly(description, operation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                runQuietly(description, operation);
+            }
+        });
+    }
+
+    private void runQuietly(String description, Runnable operation) {
+        try {
+            operation.run();
+        } catch (CacheUnavailableException e) {
+            logger.warn("Cache {} skipped: {}", description, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Cache {} failed: {}", description, e.getMessage());
+        }
+    }
+
+    private <T> T decodeValue(String key, byte[] payload, Class<T> clazz, long nearCacheVersion) {
+        try {
+            T value = codecOf(payload).decode(payload, ENVELOPE_LENGTH, clazz);
+            if (value != null) {
+                nearCache.putIfNotInvalidatedSince(key, value, payload.length, nearCacheVersion);
+            }
+            logger.debug("Value found in Redis for key {}: {}", key, value);
+            return value;
+        } catch (IOException e) {
+            logger.error("Error deserializing value from Redis with key {}: {}",
+                    key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Duration ttlOf(String key, Object value) {
+        Duration namespaceTtl = cacheNamespaces.ttlOf(key);
+        return isEmptyResult(value) && emptyResultTtl.compareTo(namespaceTtl) < 0
+                ? emptyResultTtl
+                : namespaceTtl;
+    }
+
+    private boolean isEmptyResult(Object value) {
+        return value instanceof Collection<?> collection && collection.isEmpty();
     }
 
-    public void deletePattern(String pattern) {
-        logger.info("Deleting from Redis with pattern: {}", pattern);
-        Set<String> keys = redisTemplate.keys(pattern);
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
-            logger.debug("Keys matching pattern {} deleted from Redis.", pattern);
-        } else {
-            logger.debug("No keys found matching pattern: {}.", pattern);
+    private byte[] serialize(Object value) throws IOException {
+        if (isEmptyResult(value)) {
+            return envelope(EMPTY_RESULT_MARKER, new byte[0]);
         }
+        CacheCodec codec = cacheCodecs.stream()
+                .filter(candidate -> candidate.name().equals(codecName))
+                .filter(candidate -> candidate.supports(value))
+                .findFirst()
+                .orElse(jsonCacheCodec);
+        return envelope(codec.id(), codec.encode(value));
+    }
+
+    private byte[] envelope(byte codecId, byte[] body) {
+        byte[] payload = new byte[ENVELOPE_LENGTH + body.length];
+        payload[0] = ENVELOPE_VERSION;
+        payload[1] = codecId;
+        ByteBuffer.wrap(payload).putLong(EPOCH_OFFSET, currentEpoch());
+        System.arraycopy(body, 0, payload, ENVELOPE_LENGTH, body.length);
+        return payload;
+    }
+
+    private byte[] findPayload(String key) {
+        byte[] rawPayload;
+        try {
+            rawPayload = findRawPayload(key);
+        } catch (CacheUnavailableException e) {
+            logger.debug("Redis unavailable, treating key {} as a miss: {}", key, e.getMessage());
+            return null;
+        }
+        byte[] payload = readablePayload(rawPayload, currentEpoch());
+        recordLookup(key, "redis", payload != null);
+        return payload;
+    }
+
+    private byte[] findRawPayload(String key) {
+        RedisSerializer<String> keySerializer = redisTemplate.getStringSerializer();
+        return timed("get", () -> redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(keySerializer.serialize(key))));
+    }
+
+    private byte[] readablePayload(byte[] payload, long epoch) {
+        boolean readable = payload != null
+                && payload.length >= ENVELOPE_LENGTH
+                && payload[0] == ENVELOPE_VERSION
+                && ByteBuffer.wrap(payload).getLong(EPOCH_OFFSET) == epoch
+                && (payload[1] == EMPTY_RESULT_MARKER || codecOf(payload) != null);
+        return readable ? payload : null;
+    }
+
+    private long currentEpoch() {
+        return currentGeneration(EPOCH_NAMESPACE);
+    }
+
+    private long unknownGeneration() {
+        return -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    }
+
+    private CacheCodec codecOf(byte[] payload) {
+        return cacheCodecs.stream()
+                .filter(codec -> codec.id() == payload[1])
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void invalidateNearCache(List<String> keys) {
+        nearCache.invalidate(keys);
+        publishNearCacheInvalidation(keys);
+    }
+
+    private void publishNearCacheInvalidation(List<String> keys) {
+        String message = String.join(NearCache.INVALIDATION_SEPARATOR, keys);
+        // Invalidations are idempotent, so peers may receive them late or out of order
+        cacheMaintenanceExecutor.execute(() -> runQuietly("near cache invalidation publish",
+                () -> timed("publish", () -> redisTemplate.convertAndSend(
+                        NearCache.INVALIDATION_CHANNEL, message))));
+    }
+
+    private <T> T timed(String command, Supplier<T> call) {
+        return circuitBreaker.execute(command, () -> recorded(command, call));
+    }
+
+    private <T> T recorded(String command, Supplier<T> call) {
+        return Timer.builder("cache.redis.commands")
+                .tag("command", command)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(call);
+    }
+
+    private void recordLookup(String key, String tier, boolean hit) {
+        meterRegistry.counter("cache.lookups",
+                "namespace", cacheNamespaces.namespaceOf(key),
+                "tier", tier,
+                "result", hit ? "hit" : "miss").increment();
+    }
+
+    private void recordEviction(String namespace) {
+        meterRegistry.counter("cache.evictions",
+                "namespace", cacheNamespaces.namespaceOf(namespace)).increment();
+    }
+
+    private record PageSizeDecision(boolean admitted, long decidedAtNanos) {
     }
 }
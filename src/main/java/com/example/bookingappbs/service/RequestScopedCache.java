@@ -0,0 +1,58 @@
+package com.example.bookingappbs.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+@Component
+public class RequestScopedCache {
+    private static final String ATTRIBUTE_NAME = RequestScopedCache.class.getName();
+
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(String key, Supplier<T> loader) {
+        Map<String, Object> values = currentValues();
+        if (values == null) {
+            return loader.get();
+        }
+        Object value = values.get(key);
+        if (value == null) {
+            value = loader.get();
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return (T) value;
+    }
+
+    public void put(String key, Object value) {
+        Map<String, Object> values = currentValues();
+        if (values != null) {
+            values.put(key, value);
+        }
+    }
+
+    public void evict(String key) {
+        Map<String, Object> values = currentValues();
+        if (values != null) {
+            values.remove(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> currentValues() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, Object> values = (Map<String, Object>) attributes
+                .getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (values == null) {
+            values = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE_NAME, values, RequestAttributes.SCOPE_REQUEST);
+        }
+        return values;
+    }
+}
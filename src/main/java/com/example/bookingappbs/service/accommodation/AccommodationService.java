@@ -3,6 +3,8 @@ package com.example.bookingappbs.service.accommodation;
 import com.example.bookingappbs.dto.accommodation.AccommodationDto;
 import com.example.bookingappbs.dto.accommodation.CreateAccommodationRequestDto;
 import com.example.bookingappbs.dto.accommodation.UpdateAccommodationRequestDto;
+import com.example.bookingappbs.model.Accommodation.Type;
+import java.time.LocalDate;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 
@@ -11,6 +13,14 @@ public interface AccommodationService {
 
     List<AccommodationDto> findAll(Pageable pageable);
 
+    List<AccommodationDto> findAvailable(
+            LocalDate checkInDate,
+            LocalDate checkOutDate,
+            Type type,
+            String city,
+            Pageable pageable
+    );
+
     AccommodationDto findAccommodationById(Long id);
 
     AccommodationDto updateAccommodationById(Long id, UpdateAccommodationRequestDto requestDto);
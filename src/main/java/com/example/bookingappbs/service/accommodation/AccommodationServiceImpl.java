@@ -6,16 +6,22 @@ import com.example.bookingappbs.dto.accommodation.UpdateAccommodationRequestDto;
 import com.example.bookingappbs.exception.EntityNotFoundException;
 import com.example.bookingappbs.mapper.AccommodationMapper;
 import com.example.bookingappbs.model.Accommodation;
+import com.example.bookingappbs.model.Accommodation.Type;
 import com.example.bookingappbs.repository.AccommodationRepository;
 import com.example.bookingappbs.service.RedisService;
+import com.example.bookingappbs.service.RequestScopedCache;
+import com.example.bookingappbs.service.availability.AvailabilityEngine;
 import com.example.bookingappbs.service.notification.NotificationService;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,13 +30,17 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class AccommodationServiceImpl implements AccommodationService {
     private static final Logger logger = LogManager.getLogger(AccommodationServiceImpl.class);
-    private static final String ACCOMMODATIONS_PAGE_KEY_PREFIX = "accommodations::all::";
+    private static final String ACCOMMODATIONS_NAMESPACE = "accommodations::all";
+    private static final String ACCOMMODATION_KEY_PREFIX = "accommodations::id::";
+    private static final int CANDIDATE_BATCH_SIZE = 200;
 
     private final AccommodationRepository accommodationRepository;
     private final AccommodationMapper accommodationMapper;
     private final NotificationService notificationService;
     private final RedisService redisService;
     private final AccommodationNotificationBuilder notificationBuilder;
+    private final AvailabilityEngine availabilityEngine;
+    private final RequestScopedCache requestScopedCache;
 
     @Override
     public AccommodationDto save(CreateAccommodationRequestDto requestDto) {
@@ -39,9 +49,11 @@ public class AccommodationServiceImpl implements AccommodationService {
         Accommodation savedAccommodation = accommodationRepository.save(accommodation);
 
         clearAccommodationCache();
-        sendAccommodationNotification("New accommodation created", savedAccommodation);
+        sendAccommodationNotification("accommodation-created", "New accommodation created",
+                savedAccommodation);
 
         AccommodationDto dto = accommodationMapper.toDto(savedAccommodation);
+        cacheAccommodationDto(dto);
         logger.info("Accommodation saved successfully with ID: {}", savedAccommodation.getId());
         return dto;
     }
@@ -50,36 +62,90 @@ public class AccommodationServiceImpl implements AccommodationService {
     @Transactional(readOnly = true)
     public List<AccommodationDto> findAll(Pageable pageable) {
         logger.info("Processing request to find all accommodations with pagination: {}", pageable);
-        String key = ACCOMMODATIONS_PAGE_KEY_PREFIX + "page:" + pageable.getPageNumber()
+        String key = ACCOMMODATIONS_NAMESPACE
+                + "::gen:" + redisService.currentGeneration(ACCOMMODATIONS_NAMESPACE)
+                + "::page:" + pageable.getPageNumber()
                 + "::size:" + pageable.getPageSize();
 
-        Optional<List<AccommodationDto>> cachedDtos = Optional
-                .ofNullable(findAllAccommodationsCache(key))
-                .filter(list -> !list.isEmpty());
-
-        return cachedDtos.orElseGet(() -> {
+        return redisService.findPageOrLoad(key, pageable, AccommodationDto.class, () -> {
             logger.info("Accommodations not found in cache. Fetching from database.");
             List<AccommodationDto> dbDtos = accommodationRepository.findAll(pageable).stream()
                     .map(accommodationMapper::toDto)
                     .toList();
-            saveToCacheDtos(key, dbDtos);
             logger.info("Accommodations fetched from database and saved to cache. Count: {}",
                     dbDtos.size());
             return dbDtos;
         });
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccommodationDto> findAvailable(
+            LocalDate checkInDate,
+            LocalDate checkOutDate,
+            Type type,
+            String city,
+            Pageable pageable
+    ) {
+        logger.info("Processing request to find accommodations available from {} to {}, "
+                + "type: {}, city: {}, pagination: {}", checkInDate, checkOutDate, type, city,
+                pageable);
+        if (checkInDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Check-in date must be today or in the future");
+        }
+        if (!checkOutDate.isAfter(checkInDate)) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+
+        // Availability depends on per-night occupancy, so candidates are filtered in bounded
+        // batches until the requested page is filled instead of loading every match at once
+        long toSkip = pageable.getOffset();
+        List<Accommodation> available = new ArrayList<>(pageable.getPageSize());
+        Pageable batch = PageRequest.of(0, CANDIDATE_BATCH_SIZE,
+                pageable.getSort().and(Sort.by("id")));
+        int scanned = 0;
+        Slice<Accommodation> candidates;
+        do {
+            candidates = accommodationRepository.findByTypeAndCityOptional(type, city, batch);
+            scanned += candidates.getNumberOfElements();
+            for (Accommodation accommodation : availabilityEngine
+                    .filterAvailable(candidates.getContent(), checkInDate, checkOutDate)) {
+                if (toSkip > 0) {
+                    toSkip--;
+                } else if (available.size() < pageable.getPageSize()) {
+                    available.add(accommodation);
+                }
+            }
+            batch = batch.next();
+        } while (available.size() < pageable.getPageSize() && candidates.hasNext());
+
+        logger.info("Found {} available accommodations after scanning {} candidates.",
+                available.size(), scanned);
+        return available.stream()
+                .map(accommodationMapper::toDto)
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public AccommodationDto findAccommodationById(Long id) {
         logger.info("Processing request to find accommodation by ID: {}", id);
-
-        Accommodation accommodation = accommodationRepository.findById(id).orElseThrow(
-                () -> new EntityNotFoundException("Accommodation with id " + id
-                        + " not found"));
-        AccommodationDto dto = accommodationMapper.toDto(accommodation);
-        logger.info("Accommodation with ID {} fetched from database.", id);
-        return dto;
+        String key = ACCOMMODATION_KEY_PREFIX + id;
+
+        return requestScopedCache.computeIfAbsent(key, () -> {
+            AccommodationDto cachedDto = redisService.find(key, AccommodationDto.class);
+            if (cachedDto != null) {
+                logger.info("Accommodation with ID {} retrieved from cache.", id);
+                return cachedDto;
+            }
+            Accommodation accommodation = accommodationRepository.findById(id).orElseThrow(
+                    () -> new EntityNotFoundException("Accommodation with id " + id
+                            + " not found"));
+            AccommodationDto dto = accommodationMapper.toDto(accommodation);
+            cacheAccommodationDto(dto);
+            logger.info("Accommodation with ID {} fetched from database and saved to cache.", id);
+            return dto;
+        });
     }
 
     @Override
@@ -96,6 +162,7 @@ public class AccommodationServiceImpl implements AccommodationService {
 
         Accommodation savedAccommodation = accommodationRepository.save(existedAccommodation);
         AccommodationDto dto = accommodationMapper.toDto(savedAccommodation);
+        cacheAccommodationDto(dto);
 
         clearAccommodationCache();
 
@@ -108,30 +175,33 @@ public class AccommodationServiceImpl implements AccommodationService {
         logger.info("Processing request to delete accommodation with ID: {}", id);
         clearAccommodationCache();
 
-        Accommodation accommodation = accommodationRepository.getAccommodationById(id);
+        final Accommodation accommodation = accommodationRepository.getAccommodationById(id);
         accommodationRepository.deleteById(id);
+        redisService.delete(ACCOMMODATION_KEY_PREFIX + id);
+        requestScopedCache.evict(ACCOMMODATION_KEY_PREFIX + id);
 
-        sendAccommodationNotification("Accommodation deleted", accommodation);
+        sendAccommodationNotification("accommodation-deleted", "Accommodation deleted",
+                accommodation);
         logger.info("Accommodation with ID {} deleted successfully.", id);
     }
 
-    private List<AccommodationDto> findAllAccommodationsCache(String key) {
-        return redisService.findAll(key, AccommodationDto.class);
+    private void cacheAccommodationDto(AccommodationDto dto) {
+        String key = ACCOMMODATION_KEY_PREFIX + dto.id();
+        redisService.save(key, dto);
+        requestScopedCache.put(key, dto);
     }
 
-    @Async
-    public void clearAccommodationCache() {
-        redisService.deletePattern(ACCOMMODATIONS_PAGE_KEY_PREFIX + "*");
+    private void clearAccommodationCache() {
+        redisService.incrementGeneration(ACCOMMODATIONS_NAMESPACE);
     }
 
-    @Async
-    public void saveToCacheDtos(String key, List<AccommodationDto> dbDtos) {
-        redisService.save(key, dbDtos);
-    }
-
-    private void sendAccommodationNotification(String title, Accommodation accommodation) {
+    private void sendAccommodationNotification(
+            String event,
+            String title,
+            Accommodation accommodation
+    ) {
         String message = notificationBuilder
                 .buildAccommodationNotificationMessage(title, accommodation);
-        notificationService.sendNotification(message);
+        notificationService.sendNotification(event + ":" + accommodation.getId(), message);
     }
 }
@@ -0,0 +1,85 @@
+package com.example.bookingappbs.service.availability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "availability.engine", havingValue = "memory", matchIfMissing = true)
+public class AvailabilityConsistencyChecker {
+    private static final Logger logger =
+            LogManager.getLogger(AvailabilityConsistencyChecker.class);
+
+    private final InMemoryAvailabilityEngine inMemoryAvailabilityEngine;
+    private final Counter mismatchCounter;
+    private final Counter repairCounter;
+    private final ReentrantLock verifyLock = new ReentrantLock();
+    private Set<Long> suspectedAccommodationIds = new HashSet<>();
+
+    public AvailabilityConsistencyChecker(
+            InMemoryAvailabilityEngine inMemoryAvailabilityEngine,
+            MeterRegistry meterRegistry
+    ) {
+        this.inMemoryAvailabilityEngine = inMemoryAvailabilityEngine;
+        this.mismatchCounter = meterRegistry.counter("availability.consistency.mismatches");
+        this.repairCounter = meterRegistry.counter("availability.consistency.repairs");
+    }
+
+    @Scheduled(cron = "${availability.consistency.cron}")
+    public void verify() {
+        if (!inMemoryAvailabilityEngine.isWarmedUp()) {
+            return;
+        }
+        verifyLock.lock();
+        try {
+            inMemoryAvailabilityEngine.rollForward();
+            verifyIndex();
+        } finally {
+            verifyLock.unlock();
+        }
+    }
+
+    private void verifyIndex() {
+        long originDay = inMemoryAvailabilityEngine.originDay();
+        int fromIndex = (int) Math.max(0, LocalDate.now().toEpochDay() - originDay);
+        Map<Long, int[]> expected = inMemoryAvailabilityEngine.loadOccupancy(originDay);
+
+        Set<Long> accommodationIds = new HashSet<>(expected.keySet());
+        accommodationIds.addAll(inMemoryAvailabilityEngine.trackedAccommodationIds());
+
+        Set<Long> mismatched = new HashSet<>();
+        for (Long accommodationId : accommodationIds) {
+            int[] actual = inMemoryAvailabilityEngine.occupancyOf(accommodationId);
+            int[] stored = expected.getOrDefault(accommodationId, new int[actual.length]);
+            if (Arrays.mismatch(actual, fromIndex, actual.length,
+                    stored, fromIndex, stored.length) < 0) {
+                continue;
+            }
+            mismatched.add(accommodationId);
+            mismatchCounter.increment();
+            if (!suspectedAccommodationIds.contains(accommodationId)) {
+                logger.info("Availability index mismatch for accommodation ID: {}. "
+                        + "Will repair if it persists.", accommodationId);
+            } else if (inMemoryAvailabilityEngine.repair(accommodationId)) {
+                logger.warn("Availability index diverged from database for accommodation ID: {}."
+                        + " Rebuilt from committed bookings.", accommodationId);
+                repairCounter.increment();
+                mismatched.remove(accommodationId);
+            } else {
+                logger.info("Availability index repair for accommodation ID: {} deferred while "
+                        + "reservations are in flight.", accommodationId);
+            }
+        }
+        suspectedAccommodationIds = mismatched;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bookingappbs.service.availability;
+
+import com.example.bookingappbs.model.Accommodation;
+import com.example.bookingappbs.model.Booking;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityEngine {
+    boolean tryReserve(Accommodation accommodation, LocalDate checkInDate, LocalDate checkOutDate);
+
+    boolean tryReschedule(Booking booking, LocalDate newCheckInDate, LocalDate newCheckOutDate);
+
+    List<Accommodation> filterAvailable(
+            List<Accommodation> accommodations,
+            LocalDate checkInDate,
+            LocalDate checkOutDate
+    );
+
+    void release(Long accommodationId, LocalDate checkInDate, LocalDate checkOutDate);
+
+    default void release(Booking booking) {
+        release(booking.getAccommodation().getId(),
+                booking.getCheckInDate(),
+                booking.getCheckOutDate());
+    }
+
+    static boolean occupiesUnits(Booking.Status status) {
+        return status == Booking.Status.PENDING || status == Booking.Status.CONFIRMED;
+    }
+}
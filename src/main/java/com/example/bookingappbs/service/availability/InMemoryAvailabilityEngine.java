@@ -0,0 +1,296 @@
+package com.example.bookingappbs.service.availability;
+
+import com.example.bookingappbs.dto.booking.BookingStay;
+import com.example.bookingappbs.model.Accommodation;
+import com.example.bookingappbs.model.Booking;
+import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@Primary
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "availability.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryAvailabilityEngine implements AvailabilityEngine {
+    private static final Logger logger = LogManager.getLogger(InMemoryAvailabilityEngine.class);
+    private static final List<Status> EXCLUDED_STATUSES = List.of(Status.CANCELED, Status.EXPIRED);
+    private static final int PAST_DAYS = 7;
+
+    @Value("${availability.memory.horizon-days}")
+    private int horizonDays;
+
+    private final Map<Long, OccupancyCalendar> calendars = new ConcurrentHashMap<>();
+    private final BookingRepository bookingRepository;
+    private final JpaAvailabilityEngine jpaAvailabilityEngine;
+    private final MeterRegistry meterRegistry;
+    private volatile long originDay;
+    private volatile boolean warmedUp;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        logger.info("Warming up in-memory availability index.");
+        long origin = currentOriginDay();
+        Map<Long, int[]> occupancy = loadOccupancy(origin);
+
+        calendars.clear();
+        occupancy.forEach((accommodationId, nights) ->
+                calendars.put(accommodationId, loadedCalendar(origin, nights)));
+        originDay = origin;
+        warmedUp = true;
+        logger.info("In-memory availability index warmed up for {} accommodations.",
+                calendars.size());
+    }
+
+    @Override
+    public boolean tryReserve(
+            Accommodation accommodation,
+            LocalDate checkInDate,
+            LocalDate checkOutDate
+    ) {
+        if (!warmedUp) {
+            return jpaAvailabilityEngine.tryReserve(accommodation, checkInDate, checkOutDate);
+        }
+        long fromDay = checkInDate.toEpochDay();
+        long toDay = checkOutDate.toEpochDay();
+        OccupancyCalendar calendar = calendarOf(accommodation.getId());
+
+        if (!calendar.covers(fromDay, toDay)) {
+            return trackChange(calendar, () -> {
+                if (!jpaAvailabilityEngine.tryReserve(accommodation, checkInDate, checkOutDate)) {
+                    return false;
+                }
+                calendar.occupy(fromDay, toDay, 1);
+                return true;
+            }, () -> calendar.occupy(fromDay, toDay, -1));
+        }
+        return trackChange(calendar,
+                () -> calendar.tryOccupy(fromDay, toDay, accommodation.getAvailability()),
+                () -> calendar.occupy(fromDay, toDay, -1));
+    }
+
+    @Override
+    public boolean tryReschedule(
+            Booking booking,
+            LocalDate newCheckInDate,
+            LocalDate newCheckOutDate
+    ) {
+        if (!warmedUp) {
+            return jpaAvailabilityEngine.tryReschedule(booking, newCheckInDate, newCheckOutDate);
+        }
+        Accommodation accommodation = booking.getAccommodation();
+        OccupancyCalendar calendar = calendarOf(accommodation.getId());
+        long oldFromDay = booking.getCheckInDate().toEpochDay();
+        long oldToDay = booking.getCheckOutDate().toEpochDay();
+        long newFromDay = newCheckInDate.toEpochDay();
+        long newToDay = newCheckOutDate.toEpochDay();
+
+        boolean occupiesUnits = AvailabilityEngine.occupiesUnits(booking.getStatus());
+        Runnable moveBack = () -> calendar.tryMove(
+                newFromDay, newToDay, oldFromDay, oldToDay, Integer.MAX_VALUE);
+
+        if (!calendar.covers(newFromDay, newToDay)) {
+            if (!occupiesUnits) {
+                return jpaAvailabilityEngine
+                        .tryReschedule(booking, newCheckInDate, newCheckOutDate);
+            }
+            return trackChange(calendar, () -> {
+                if (!jpaAvailabilityEngine
+                        .tryReschedule(booking, newCheckInDate, newCheckOutDate)) {
+                    return false;
+                }
+                calendar.tryMove(oldFromDay, oldToDay, newFromDay, newToDay, Integer.MAX_VALUE);
+                return true;
+            }, moveBack);
+        }
+        int capacity = accommodation.getAvailability();
+        if (!occupiesUnits) {
+            return calendar.maxOccupancy(newFromDay, newToDay) < capacity;
+        }
+        return trackChange(calendar,
+                () -> calendar.tryMove(oldFromDay, oldToDay, newFromDay, newToDay, capacity),
+                moveBack);
+    }
+
+    @Override
+    public List<Accommodation> filterAvailable(
+            List<Accommodation> accommodations,
+            LocalDate checkInDate,
+            LocalDate checkOutDate
+    ) {
+        if (!warmedUp) {
+            return jpaAvailabilityEngine.filterAvailable(accommodations, checkInDate, checkOutDate);
+        }
+        long fromDay = checkInDate.toEpochDay();
+        long toDay = checkOutDate.toEpochDay();
+        Set<Long> availableIds = new HashSet<>();
+        List<Accommodation> uncovered = new ArrayList<>();
+
+        for (Accommodation accommodation : accommodations) {
+            OccupancyCalendar calendar = calendars.get(accommodation.getId());
+            if (calendar == null) {
+                if (accommodation.getAvailability() > 0) {
+                    availableIds.add(accommodation.getId());
+                }
+            } else if (!calendar.covers(fromDay, toDay)) {
+                uncovered.add(accommodation);
+            } else if (calendar.maxOccupancy(fromDay, toDay) < accommodation.getAvailability()) {
+                availableIds.add(accommodation.getId());
+            }
+        }
+        jpaAvailabilityEngine.filterAvailable(uncovered, checkInDate, checkOutDate)
+                .forEach(accommodation -> availableIds.add(accommodation.getId()));
+
+        return accommodations.stream()
+                .filter(accommodation -> availableIds.contains(accommodation.getId()))
+                .toList();
+    }
+
+    @Override
+    public void release(Long accommodationId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (!warmedUp) {
+            return;
+        }
+        long fromDay = checkInDate.toEpochDay();
+        long toDay = checkOutDate.toEpochDay();
+        OccupancyCalendar calendar = calendarOf(accommodationId);
+        trackChange(calendar, () -> {
+            calendar.occupy(fromDay, toDay, -1);
+            return true;
+        }, () -> calendar.occupy(fromDay, toDay, 1));
+    }
+
+    void rollForward() {
+        long origin = currentOriginDay();
+        long previousOrigin = originDay;
+        if (!warmedUp || origin <= previousOrigin) {
+            return;
+        }
+        // Nights entering the horizon may already hold bookings made through the JPA
+        // fallback, so they are seeded from the database rather than left empty
+        Map<Long, int[]> occupancy = loadOccupancy(origin);
+        originDay = origin;
+        calendars.forEach((accommodationId, calendar) ->
+                calendar.rollTo(origin, occupancy.get(accommodationId)));
+        occupancy.forEach((accommodationId, nights) ->
+                calendars.computeIfAbsent(accommodationId, id -> loadedCalendar(origin, nights)));
+        logger.info("In-memory availability window rolled forward by {} days.",
+                origin - previousOrigin);
+    }
+
+    boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    long originDay() {
+        return originDay;
+    }
+
+    Set<Long> trackedAccommodationIds() {
+        return Set.copyOf(calendars.keySet());
+    }
+
+    int[] occupancyOf(Long accommodationId) {
+        OccupancyCalendar calendar = calendars.get(accommodationId);
+        return calendar != null ? calendar.snapshot() : new int[horizonDays];
+    }
+
+    boolean repair(Long accommodationId) {
+        return calendarOf(accommodationId).replaceIfSettled(
+                origin -> loadOccupancy(accommodationId, origin));
+    }
+
+    Map<Long, int[]> loadOccupancy(long origin) {
+        Map<Long, OccupancyCalendar> loaded = new HashMap<>();
+        List<BookingStay> stays = bookingRepository.findActiveStays(
+                EXCLUDED_STATUSES, LocalDate.ofEpochDay(origin));
+        for (BookingStay stay : stays) {
+            loaded.computeIfAbsent(stay.accommodationId(),
+                            id -> new OccupancyCalendar(origin, horizonDays, underflows()))
+                    .occupy(stay.checkInDate().toEpochDay(), stay.checkOutDate().toEpochDay(), 1);
+        }
+        Map<Long, int[]> occupancy = new HashMap<>();
+        loaded.forEach((accommodationId, calendar) ->
+                occupancy.put(accommodationId, calendar.snapshot()));
+        return occupancy;
+    }
+
+    private int[] loadOccupancy(Long accommodationId, long origin) {
+        OccupancyCalendar loaded = new OccupancyCalendar(origin, horizonDays, underflows());
+        bookingRepository.findActiveStaysByAccommodationId(
+                        accommodationId, EXCLUDED_STATUSES, LocalDate.ofEpochDay(origin))
+                .forEach(stay -> loaded.occupy(stay.checkInDate().toEpochDay(),
+                        stay.checkOutDate().toEpochDay(), 1));
+        return loaded.snapshot();
+    }
+
+    private OccupancyCalendar calendarOf(Long accommodationId) {
+        return calendars.computeIfAbsent(accommodationId,
+                id -> new OccupancyCalendar(originDay, horizonDays, underflows()));
+    }
+
+    private OccupancyCalendar loadedCalendar(long origin, int[] nights) {
+        OccupancyCalendar calendar = new OccupancyCalendar(origin, horizonDays, underflows());
+        calendar.replaceWith(nights);
+        return calendar;
+    }
+
+    private Counter underflows() {
+        return meterRegistry.counter("availability.occupancy.underflows");
+    }
+
+    private long currentOriginDay() {
+        return LocalDate.now().minusDays(PAST_DAYS).toEpochDay();
+    }
+
+    private boolean trackChange(
+            OccupancyCalendar calendar,
+            BooleanSupplier change,
+            Runnable revert
+    ) {
+        // Marked pending before it is applied, so a concurrent repair never reloads the
+        // calendar between the change and its commit
+        calendar.beginChange();
+        boolean changed = false;
+        try {
+            changed = change.getAsBoolean();
+        } finally {
+            if (!changed || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                calendar.endChange();
+            }
+        }
+        if (changed && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                revert.run();
+                            }
+                            calendar.endChange();
+                        }
+                    });
+        }
+        return changed;
+    }
+}
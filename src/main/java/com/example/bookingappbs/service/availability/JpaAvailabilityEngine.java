@@ -0,0 +1,80 @@
+package com.example.bookingappbs.service.availability;
+
+import com.example.bookingappbs.dto.booking.AccommodationBookingCount;
+import com.example.bookingappbs.model.Accommodation;
+import com.example.bookingappbs.model.Booking;
+import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.repository.BookingRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class JpaAvailabilityEngine implements AvailabilityEngine {
+    private static final List<Status> EXCLUDED_STATUSES = List.of(Status.CANCELED, Status.EXPIRED);
+
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public boolean tryReserve(
+            Accommodation accommodation,
+            LocalDate checkInDate,
+            LocalDate checkOutDate
+    ) {
+        int overlappingBookings = bookingRepository.countOverLappingBookings(
+                accommodation,
+                checkInDate,
+                checkOutDate,
+                EXCLUDED_STATUSES);
+        return overlappingBookings < accommodation.getAvailability();
+    }
+
+    @Override
+    public boolean tryReschedule(
+            Booking booking,
+            LocalDate newCheckInDate,
+            LocalDate newCheckOutDate
+    ) {
+        int overlappingBookings = bookingRepository.countOverlappingBookingsExcludingCurrent(
+                booking.getAccommodation(),
+                newCheckInDate,
+                newCheckOutDate,
+                EXCLUDED_STATUSES,
+                booking.getId()
+        );
+        return overlappingBookings < booking.getAccommodation().getAvailability();
+    }
+
+    @Override
+    public List<Accommodation> filterAvailable(
+            List<Accommodation> accommodations,
+            LocalDate checkInDate,
+            LocalDate checkOutDate
+    ) {
+        if (accommodations.isEmpty()) {
+            return accommodations;
+        }
+        Map<Long, Long> overlappingBookings = bookingRepository
+                .countOverlappingBookingsByAccommodation(
+                        accommodations,
+                        checkInDate,
+                        checkOutDate,
+                        EXCLUDED_STATUSES)
+                .stream()
+                .collect(Collectors.toMap(
+                        AccommodationBookingCount::accommodationId,
+                        AccommodationBookingCount::bookingCount));
+        return accommodations.stream()
+                .filter(accommodation -> overlappingBookings
+                        .getOrDefault(accommodation.getId(), 0L) < accommodation.getAvailability())
+                .toList();
+    }
+
+    @Override
+    public void release(Long accommodationId, LocalDate checkInDate, LocalDate checkOutDate) {
+    }
+}
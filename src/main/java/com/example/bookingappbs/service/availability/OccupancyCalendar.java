@@ -0,0 +1,123 @@
+package com.example.bookingappbs.service.availability;
+
+import io.micrometer.core.instrument.Counter;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+class OccupancyCalendar {
+    private static final Logger logger = LogManager.getLogger(OccupancyCalendar.class);
+
+    private final int[] nights;
+    private final Counter underflows;
+    private long originDay;
+    private int pendingChanges;
+
+    OccupancyCalendar(long originDay, int horizonDays, Counter underflows) {
+        this.originDay = originDay;
+        this.nights = new int[horizonDays];
+        this.underflows = underflows;
+    }
+
+    synchronized boolean covers(long fromDay, long toDay) {
+        return fromDay >= originDay && toDay <= originDay + nights.length;
+    }
+
+    synchronized int maxOccupancy(long fromDay, long toDay) {
+        int max = 0;
+        for (int i = startIndex(fromDay); i < endIndex(toDay); i++) {
+            max = Math.max(max, nights[i]);
+        }
+        return max;
+    }
+
+    synchronized boolean tryOccupy(long fromDay, long toDay, int capacity) {
+        if (maxOccupancy(fromDay, toDay) >= capacity) {
+            return false;
+        }
+        occupy(fromDay, toDay, 1);
+        return true;
+    }
+
+    synchronized boolean tryMove(
+            long oldFromDay,
+            long oldToDay,
+            long newFromDay,
+            long newToDay,
+            int capacity
+    ) {
+        occupy(oldFromDay, oldToDay, -1);
+        if (tryOccupy(newFromDay, newToDay, capacity)) {
+            return true;
+        }
+        occupy(oldFromDay, oldToDay, 1);
+        return false;
+    }
+
+    synchronized void occupy(long fromDay, long toDay, int delta) {
+        int negativeNights = 0;
+        for (int i = startIndex(fromDay); i < endIndex(toDay); i++) {
+            nights[i] += delta;
+            if (nights[i] < 0) {
+                negativeNights++;
+                nights[i] = 0;
+            }
+        }
+        if (negativeNights > 0) {
+            underflows.increment(negativeNights);
+            logger.warn("Occupancy dropped below zero on {} nights from {}. A release was "
+                    + "probably applied twice.", negativeNights, LocalDate.ofEpochDay(fromDay));
+        }
+    }
+
+    synchronized void rollTo(long newOriginDay, int[] occupancy) {
+        int shift = (int) Math.min(nights.length, newOriginDay - originDay);
+        if (shift <= 0) {
+            return;
+        }
+        System.arraycopy(nights, shift, nights, 0, nights.length - shift);
+        for (int i = nights.length - shift; i < nights.length; i++) {
+            nights[i] = occupancy != null ? occupancy[i] : 0;
+        }
+        originDay = newOriginDay;
+    }
+
+    synchronized int[] snapshot() {
+        return Arrays.copyOf(nights, nights.length);
+    }
+
+    synchronized void replaceWith(int[] occupancy) {
+        System.arraycopy(occupancy, 0, nights, 0, nights.length);
+    }
+
+    synchronized void beginChange() {
+        pendingChanges++;
+    }
+
+    synchronized void endChange() {
+        pendingChanges--;
+    }
+
+    synchronized boolean replaceIfSettled(LongFunction<int[]> committedOccupancy) {
+        // A reload while a change is uncommitted would either drop it or count it twice
+        if (pendingChanges > 0) {
+            return false;
+        }
+        replaceWith(committedOccupancy.apply(originDay));
+        return true;
+    }
+
+    synchronized long originDay() {
+        return originDay;
+    }
+
+    private int startIndex(long fromDay) {
+        return (int) Math.max(0, fromDay - originDay);
+    }
+
+    private int endIndex(long toDay) {
+        return (int) Math.min(nights.length, Math.max(0, toDay - originDay));
+    }
+}
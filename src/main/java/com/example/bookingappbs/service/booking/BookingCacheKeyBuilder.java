@@ -1,14 +1,29 @@
 package com.example.bookingappbs.service.booking;
 
+import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.service.RedisService;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class BookingCacheKeyBuilder {
     private static final String BOOKINGS_PAGE_KEY_PREFIX = "bookings";
+    private static final String ALL_USERS_NAMESPACE = BOOKINGS_PAGE_KEY_PREFIX + "::any";
+    private static final String USER_NAMESPACE_PREFIX = BOOKINGS_PAGE_KEY_PREFIX + "::user::";
+    private static final String STATUS_NAMESPACE_SEPARATOR = "::status::";
+
+    private final RedisService redisService;
 
     public String buildBookingsPageKey(Long userId, String status, Pageable pageable) {
-        StringBuilder cacheKeyBuilder = new StringBuilder(BOOKINGS_PAGE_KEY_PREFIX);
+        String namespace = pageNamespace(userId, status);
+        StringBuilder cacheKeyBuilder = new StringBuilder(BOOKINGS_PAGE_KEY_PREFIX)
+                .append("::gen::").append(redisService.currentGeneration(namespace));
         if (userId != null) {
             cacheKeyBuilder.append("::user::").append(userId);
         }
@@ -20,4 +35,26 @@ public class BookingCacheKeyBuilder {
                 .append("::sort::").append(pageable.getSort());
         return cacheKeyBuilder.toString();
     }
+
+    public void invalidateBookingPages(Collection<Long> userIds, Collection<Status> statuses) {
+        Set<String> namespaces = new LinkedHashSet<>();
+        userIds.stream()
+                .filter(Objects::nonNull)
+                .forEach(userId -> namespaces.add(USER_NAMESPACE_PREFIX + userId));
+        namespaces.add(ALL_USERS_NAMESPACE);
+        statuses.stream()
+                .filter(Objects::nonNull)
+                .forEach(status -> namespaces.add(
+                        ALL_USERS_NAMESPACE + STATUS_NAMESPACE_SEPARATOR + status));
+        redisService.incrementGenerations(namespaces);
+    }
+
+    private String pageNamespace(Long userId, String status) {
+        if (userId != null) {
+            return USER_NAMESPACE_PREFIX + userId;
+        }
+        return status != null
+                ? ALL_USERS_NAMESPACE + STATUS_NAMESPACE_SEPARATOR + status
+                : ALL_USERS_NAMESPACE;
+    }
 }
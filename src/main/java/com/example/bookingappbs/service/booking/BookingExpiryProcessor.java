@@ -0,0 +1,112 @@
+package com.example.bookingappbs.service.booking;
+
+import com.example.bookingappbs.dto.booking.ExpiringBooking;
+import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.model.JobCheckpoint;
+import com.example.bookingappbs.repository.BookingRepository;
+import com.example.bookingappbs.repository.JobCheckpointRepository;
+import com.example.bookingappbs.service.RedisService;
+import com.example.bookingappbs.service.availability.AvailabilityEngine;
+import com.example.bookingappbs.service.notification.NotificationService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class BookingExpiryProcessor {
+    private static final String CHECKPOINT_NAME = "booking-expiry";
+    private static final Logger logger = LogManager.getLogger(BookingExpiryProcessor.class);
+    private static final List<Status> EXPIRABLE_STATUSES = List.of(Status.PENDING,
+            Status.CONFIRMED);
+    private static final String BOOKING_KEY_PREFIX = "bookings::id::";
+    private static final String NOTIFICATION_TITLE =
+            "Bookings expired and accommodations released: ";
+    private static final int MAX_NOTIFICATION_LENGTH = 4096;
+
+    private final BookingRepository bookingRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final AvailabilityEngine availabilityEngine;
+    private final RedisService redisService;
+    private final BookingCacheKeyBuilder cacheKeyBuilder;
+    private final NotificationService notificationService;
+
+    @Value("${booking.expiry.chunk-size}")
+    private int chunkSize;
+
+    public JobCheckpoint checkpoint(LocalDate cutoff) {
+        Optional<JobCheckpoint> checkpoint = jobCheckpointRepository.findById(CHECKPOINT_NAME)
+                .filter(existing -> existing.getCursorDate().equals(cutoff));
+        if (checkpoint.isPresent()) {
+            logger.info("Resuming booking expiry for {} after booking ID {}",
+                    cutoff, checkpoint.get().getLastId());
+            return checkpoint.get();
+        }
+        return jobCheckpointRepository.save(new JobCheckpoint()
+                .setName(CHECKPOINT_NAME)
+                .setCursorDate(cutoff)
+                .setUpdatedAt(LocalDateTime.now()));
+    }
+
+    public boolean expireChunk(JobCheckpoint checkpoint) {
+        List<ExpiringBooking> bookings = bookingRepository.findExpiring(EXPIRABLE_STATUSES,
+                checkpoint.getCursorDate(), checkpoint.getLastId(), PageRequest.of(0, chunkSize));
+        if (bookings.isEmpty()) {
+            return false;
+        }
+
+        List<Long> ids = bookings.stream().map(ExpiringBooking::id).toList();
+        int expired = bookingRepository.expire(ids, EXPIRABLE_STATUSES, Status.EXPIRED);
+        if (expired != bookings.size()) {
+            // The chunk is locked, so this means the lock was not honoured; roll the chunk back
+            // rather than release availability for bookings that were not expired
+            throw new IllegalStateException("Expected to expire " + bookings.size()
+                    + " bookings but updated " + expired);
+        }
+
+        bookings.forEach(booking -> availabilityEngine.release(booking.accommodationId(),
+                booking.checkInDate(), booking.checkOutDate()));
+        redisService.deleteAll(ids.stream().map(id -> BOOKING_KEY_PREFIX + id).toList());
+        Set<Status> statuses = bookings.stream()
+                .map(ExpiringBooking::status)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        statuses.add(Status.EXPIRED);
+        cacheKeyBuilder.invalidateBookingPages(bookings.stream()
+                .map(ExpiringBooking::userId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)), statuses);
+
+        long lastId = ids.get(ids.size() - 1);
+        notificationService.sendNotification(
+                "bookings-expired:" + checkpoint.getCursorDate() + ":" + lastId,
+                buildNotificationMessage(ids));
+
+        jobCheckpointRepository.save(checkpoint
+                .setLastId(lastId)
+                .setProcessed(checkpoint.getProcessed() + bookings.size())
+                .setUpdatedAt(LocalDateTime.now()));
+        logger.info("Expired {} bookings up to ID {}", bookings.size(), lastId);
+        return bookings.size() == chunkSize;
+    }
+
+    private String buildNotificationMessage(List<Long> ids) {
+        String message = NOTIFICATION_TITLE + "\n"
+                + "Count: " + ids.size() + "\n"
+                + "Booking IDs: " + ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(", "));
+        return message.length() > MAX_NOTIFICATION_LENGTH
+                ? message.substring(0, MAX_NOTIFICATION_LENGTH) : message;
+    }
+}
@@ -12,13 +12,18 @@ import com.example.bookingappbs.mapper.BookingMapper;
 import com.example.bookingappbs.model.Accommodation;
 import com.example.bookingappbs.model.Booking;
 import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.model.JobCheckpoint;
 import com.example.bookingappbs.model.User;
 import com.example.bookingappbs.repository.AccommodationRepository;
 import com.example.bookingappbs.repository.BookingRepository;
 import com.example.bookingappbs.service.RedisService;
+import com.example.bookingappbs.service.RequestScopedCache;
+import com.example.bookingappbs.service.availability.AvailabilityEngine;
 import com.example.bookingappbs.service.notification.NotificationService;
 import com.example.bookingappbs.service.payment.PaymentService;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
@@ -26,9 +31,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -36,7 +41,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class BookingServiceImpl implements BookingService {
     private static final Logger logger = LogManager.getLogger(BookingServiceImpl.class);
-    private static final String BOOKINGS_PAGE_KEY_PREFIX = "bookings";
+    private static final String BOOKING_KEY_PREFIX = "bookings::id::";
 
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
@@ -47,6 +52,9 @@ public class BookingServiceImpl implements BookingService {
     private final PaymentService paymentService;
     private final BookingCacheKeyBuilder cacheKeyBuilder;
     private final BookingNotificationBuilder notificationBuilder;
+    private final AvailabilityEngine availabilityEngine;
+    private final RequestScopedCache requestScopedCache;
+    private final BookingExpiryProcessor bookingExpiryProcessor;
 
     @Override
     public BookingDto save(User user, CreateBookingRequestDto requestDto) {
@@ -71,10 +79,12 @@ public class BookingServiceImpl implements BookingService {
 
         Booking savedBooking = bookingRepository.save(booking);
 
-        clearBookingsCache();
+        clearBookingsCache(List.of(user.getId()), List.of(Status.PENDING));
 
         BookingDto bookingDto = bookingMapper.toDto(savedBooking);
-        sendBookingNotification("New booking created", savedBooking, accommodation);
+        cacheBookingDto(bookingDto);
+        sendBookingNotification("booking-created", "New booking created", savedBooking,
+                accommodation);
 
         logger.info("Booking saved successfully with ID: {}", savedBooking.getId());
         return bookingDto;
@@ -95,23 +105,18 @@ public class BookingServiceImpl implements BookingService {
                 pageable
         );
 
-        List<BookingDto> cachedBookings = findAllBookingsCache(key);
-        if (cachedBookings != null && !cachedBookings.isEmpty()) {
-            logger.info("Retrieved bookings from cache with key: {}, count: {}",
-                    key, cachedBookings.size());
-            return cachedBookings;
-        }
-
-        Page<Booking> bookings = bookingRepository
-                .findByUserIdAndStatusOptional(userId, status, pageable);
-        List<BookingDto> bookingDtos = bookings.stream()
-                .map(bookingMapper::toDto)
-                .toList();
-
-        saveToCacheDtos(key, bookingDtos);
-
-        logger.info("Retrieved bookings from database, count: {}, and saved to cache with key: {}",
-                bookingDtos.size(), key);
+        List<BookingDto> bookingDtos = redisService
+                .findPageOrLoad(key, pageable, BookingDto.class, () -> {
+                    Page<Booking> bookings = bookingRepository
+                            .findByUserIdAndStatusOptional(userId, status, pageable);
+                    logger.info("Retrieved bookings from database, count: {}, and saved to cache "
+                            + "with key: {}", bookings.getNumberOfElements(), key);
+                    return bookings.stream()
+                            .map(bookingMapper::toDto)
+                            .toList();
+                });
+
+        logger.info("Retrieved bookings with key: {}, count: {}", key, bookingDtos.size());
         return bookingDtos;
     }
 
@@ -126,23 +131,19 @@ public class BookingServiceImpl implements BookingService {
                 pageable
         );
 
-        List<BookingDto> cachedBookings = findAllBookingsCache(key);
-        if (cachedBookings != null && !cachedBookings.isEmpty()) {
-            logger.info("Retrieved user bookings from cache with key: {}, count: {}",
-                    key, cachedBookings.size());
-            return cachedBookings;
-        }
-
-        Page<Booking> bookingsByUser = bookingRepository.getBookingsByUser(user, pageable);
-
-        List<BookingDto> bookingDtos = bookingsByUser.stream()
-                .map(bookingMapper::toDto)
-                .toList();
-
-        saveToCacheDtos(key, bookingDtos);
-
-        logger.info("Retrieved user bookings from database, count: {}, "
-                + "and saved to cache with key: {}", bookingDtos.size(), key);
+        List<BookingDto> bookingDtos = redisService
+                .findPageOrLoad(key, pageable, BookingDto.class, () -> {
+                    Page<Booking> bookingsByUser = bookingRepository
+                            .getBookingsByUser(user, pageable);
+                    logger.info("Retrieved user bookings from database, count: {}, "
+                            + "and saved to cache with key: {}",
+                            bookingsByUser.getNumberOfElements(), key);
+                    return bookingsByUser.stream()
+                            .map(bookingMapper::toDto)
+                            .toList();
+                });
+
+        logger.info("Retrieved user bookings with key: {}, count: {}", key, bookingDtos.size());
         return bookingDtos;
     }
 
@@ -150,15 +151,24 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public BookingDto getBookingById(User user, Long id) {
         logger.info("Processing request to get booking with ID: {} for user ID: {}",
-                id, user.getId());
-
-        Booking existedBooking = bookingRepository.findById(id)
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Cannot find Booking by id: "));
-        BookingDto bookingDto = bookingMapper.toDto(existedBooking);
-
-        logger.info("Booking with ID {} fetched from database and saved to cache.", id);
-        return bookingDto;
+                id, user != null ? user.getId() : null);
+        String key = BOOKING_KEY_PREFIX + id;
+
+        return requestScopedCache.computeIfAbsent(key, () -> {
+            BookingDto cachedBooking = redisService.find(key, BookingDto.class);
+            if (cachedBooking != null) {
+                logger.info("Booking with ID {} retrieved from cache.", id);
+                return cachedBooking;
+            }
+            Booking existedBooking = bookingRepository.findById(id)
+                    .orElseThrow(() ->
+                            new EntityNotFoundException("Cannot find Booking by id: " + id));
+            BookingDto bookingDto = bookingMapper.toDto(existedBooking);
+            cacheBookingDto(bookingDto);
+
+            logger.info("Booking with ID {} fetched from database and saved to cache.", id);
+            return bookingDto;
+        });
     }
 
     @Override
@@ -180,7 +190,7 @@ public class BookingServiceImpl implements BookingService {
             throw new AccessDeniedException("The user does not have permission to change "
                     + "the booking status. Please contact the administrator.");
         }
-        return updateBookingDetails(existedBooking, requestDto, id, "user" + user.getId());
+        return updateBookingDetails(existedBooking, requestDto, null, id, "user" + user.getId());
     }
 
     @Override
@@ -191,27 +201,26 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() ->
                         new EntityNotFoundException("Booking with id " + id + " not found"));
 
+        Status newStatus = null;
         if (requestDto.status() != null) {
             if (existedBooking.getStatus() == Status.CANCELED
                     || existedBooking.getStatus() == Status.EXPIRED) {
                 throw new IllegalArgumentException("Cannot update booking with status "
                         + existedBooking.getStatus());
             }
-            Optional.of(requestDto.status()).ifPresent(status -> {
-                try {
-                    existedBooking.setStatus(Status.valueOf(status));
-                    logger.info("Booking ID {} status updated to: {}", id, status);
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException("Invalid status " + status);
-                }
-            });
+            try {
+                newStatus = Status.valueOf(requestDto.status());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status " + requestDto.status());
+            }
         }
-        return updateBookingDetails(existedBooking, requestDto, id, "admin");
+        return updateBookingDetails(existedBooking, requestDto, newStatus, id, "admin");
     }
 
     private BookingDto updateBookingDetails(
             Booking existedBooking,
             UpdateBookingRequestDto requestDto,
+            Status newStatus,
             Long bookingId,
             String updatedBy
     ) {
@@ -225,11 +234,22 @@ public class BookingServiceImpl implements BookingService {
 
         existedBooking.setCheckInDate(newCheckInDate);
         existedBooking.setCheckOutDate(newCheckOutDate);
+        final Status previousStatus = existedBooking.getStatus();
+        if (newStatus != null) {
+            boolean occupiedUnits = AvailabilityEngine.occupiesUnits(previousStatus);
+            existedBooking.setStatus(newStatus);
+            logger.info("Booking ID {} status updated to: {}", bookingId, newStatus);
+            if (occupiedUnits && !AvailabilityEngine.occupiesUnits(newStatus)) {
+                availabilityEngine.release(existedBooking);
+            }
+        }
 
         Booking savedBooking = bookingRepository.save(existedBooking);
         BookingDto bookingDto = bookingMapper.toDto(savedBooking);
+        cacheBookingDto(bookingDto);
 
-        clearBookingsCache();
+        clearBookingsCache(List.of(savedBooking.getUser().getId()),
+                Arrays.asList(previousStatus, savedBooking.getStatus()));
 
         logger.info("Booking with ID {} updated successfully by {}.", bookingId, updatedBy);
         return bookingDto;
@@ -248,13 +268,21 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Booking is already canceled or deleted");
         }
 
+        final Status previousStatus = booking.getStatus();
+        final boolean occupiedUnits = AvailabilityEngine.occupiesUnits(previousStatus);
         booking.setStatus(Status.CANCELED);
         bookingRepository.save(booking);
         bookingRepository.delete(booking);
+        if (occupiedUnits) {
+            availabilityEngine.release(booking);
+        }
+        evictBookingDtos(List.of(booking.getId()));
 
-        clearBookingsCache();
+        clearBookingsCache(List.of(booking.getUser().getId()),
+                Arrays.asList(previousStatus, Status.CANCELED));
 
-        sendBookingNotification("Booking canceled", booking, booking.getAccommodation());
+        sendBookingNotification("booking-canceled", "Booking canceled", booking,
+                booking.getAccommodation());
         logger.info("Booking with ID {} successfully canceled.", id);
     }
 
@@ -265,31 +293,23 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Scheduled(cron = "0 0 0 * * *")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkAndExpiredBooking() {
         logger.info("Scheduled task: Checking for expired bookings.");
         LocalDate yesterday = LocalDate.now().minusDays(1);
-        List<Booking> expiredBookings = bookingRepository
-                .findByStatusIsNotAndCheckOutDateLessThanEqual(Status.CANCELED, yesterday);
+        JobCheckpoint checkpoint = bookingExpiryProcessor.checkpoint(yesterday);
+        boolean hasMore;
+        do {
+            hasMore = bookingExpiryProcessor.expireChunk(checkpoint);
+        } while (hasMore);
 
-        if (expiredBookings.isEmpty()) {
+        if (checkpoint.getProcessed() == 0) {
             logger.info("No expired bookings found today.");
-            notificationService.sendNotification("No expired bookings today!");
+            notificationService.sendNotification("no-expired-bookings:" + LocalDate.now(),
+                    "No expired bookings today!");
         } else {
-            logger.info("Found {} expired bookings.", expiredBookings.size());
-            for (Booking booking : expiredBookings) {
-                booking.setStatus(Status.EXPIRED);
-                bookingRepository.save(booking);
-
-                sendBookingNotification(
-                        "Booking expired and accommodation released",
-                        booking,
-                        booking.getAccommodation()
-                );
-
-                logger.info("Booking ID {} expired and processed.", booking.getId());
-            }
+            logger.info("Expired {} bookings.", checkpoint.getProcessed());
         }
-        clearBookingsCache();
         logger.info("Scheduled task: Finished checking for expired bookings.");
     }
 
@@ -305,28 +325,33 @@ public class BookingServiceImpl implements BookingService {
         return accommodationMapper.toDto(accommodation);
     }
 
-    @Async
-    public void clearBookingsCache() {
-        redisService.deletePattern(BOOKINGS_PAGE_KEY_PREFIX + "*");
+    private void clearBookingsCache(Collection<Long> userIds, Collection<Status> statuses) {
+        cacheKeyBuilder.invalidateBookingPages(userIds, statuses);
     }
 
-    private List<BookingDto> findAllBookingsCache(String key) {
-        return redisService.findAll(key, BookingDto.class);
+    private void cacheBookingDto(BookingDto bookingDto) {
+        String key = BOOKING_KEY_PREFIX + bookingDto.id();
+        redisService.save(key, bookingDto);
+        requestScopedCache.put(key, bookingDto);
     }
 
-    @Async
-    public void saveToCacheDtos(String key, List<BookingDto> bookingDtos) {
-        redisService.save(key, bookingDtos);
+    private void evictBookingDtos(List<Long> bookingIds) {
+        List<String> keys = bookingIds.stream()
+                .map(bookingId -> BOOKING_KEY_PREFIX + bookingId)
+                .toList();
+        redisService.deleteAll(keys);
+        keys.forEach(requestScopedCache::evict);
     }
 
     private void sendBookingNotification(
+            String event,
             String title,
             Booking booking,
             Accommodation accommodation
     ) {
         String message = notificationBuilder
                 .buildBookingNotificationMessage(title, booking, accommodation);
-        notificationService.sendNotification(message);
+        notificationService.sendNotification(event + ":" + booking.getId(), message);
     }
 
     private void validateAvailability(
@@ -334,12 +359,7 @@ public class BookingServiceImpl implements BookingService {
             LocalDate checkInDate,
             LocalDate checkOutDate
     ) {
-        int overlappingBookings = bookingRepository.countOverLappingBookings(
-                accommodation,
-                checkInDate,
-                checkOutDate,
-                List.of(Status.CANCELED, Status.EXPIRED));
-        if (overlappingBookings >= accommodation.getAvailability()) {
+        if (!availabilityEngine.tryReserve(accommodation, checkInDate, checkOutDate)) {
             throw new IllegalArgumentException("No available units for the selected dates. "
                     + "Max capacity: " + accommodation.getAvailability());
         }
@@ -356,15 +376,7 @@ public class BookingServiceImpl implements BookingService {
             LocalDate newCheckInDate,
             LocalDate newCheckOutDate
     ) {
-        int overlappingBookings = bookingRepository.countOverlappingBookingsExcludingCurrent(
-                booking.getAccommodation(),
-                newCheckInDate,
-                newCheckOutDate,
-                List.of(Status.CANCELED, Status.EXPIRED),
-                booking.getId()
-        );
-
-        if (overlappingBookings >= booking.getAccommodation().getAvailability()) {
+        if (!availabilityEngine.tryReschedule(booking, newCheckInDate, newCheckOutDate)) {
             throw new IllegalArgumentException("No available units for the new dates");
         }
     }
@@ -0,0 +1,322 @@
+package com.example.bookingappbs.service.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BinaryCacheCodec implements CacheCodec {
+    private static final byte ID = 2;
+    private static final byte SINGLE_VALUE = 0;
+    private static final byte LIST_VALUE = 1;
+
+    private final Map<Class<?>, RecordSchema> schemas = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "binary";
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        if (value instanceof List<?> list) {
+            return list.stream().allMatch(element -> element != null
+                    && element.getClass().isRecord()
+                    && element.getClass() == list.get(0).getClass());
+        }
+        return value != null && value.getClass().isRecord();
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (value instanceof List<?> list) {
+            out.writeByte(LIST_VALUE);
+            out.writeInt(list.isEmpty() ? 0 : schemaOf(list.get(0).getClass()).fingerprint());
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeRecord(out, element);
+            }
+        } else {
+            out.writeByte(SINGLE_VALUE);
+            out.writeInt(schemaOf(value.getClass()).fingerprint());
+            writeRecord(out, value);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, int offset, Class<T> type) throws IOException {
+        DataInputStream in = inputOf(payload, offset);
+        if (in.readByte() != SINGLE_VALUE || in.readInt() != schemaOf(type).fingerprint()) {
+            return null;
+        }
+        return type.cast(readRecord(in, type));
+    }
+
+    @Override
+    public <T> List<T> decodeList(
+            byte[] payload,
+            int offset,
+            Class<T> elementType
+    ) throws IOException {
+        DataInputStream in = inputOf(payload, offset);
+        if (in.readByte() != LIST_VALUE) {
+            return null;
+        }
+        int fingerprint = in.readInt();
+        int size = in.readInt();
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        if (fingerprint != schemaOf(elementType).fingerprint()) {
+            return null;
+        }
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(elementType.cast(readRecord(in, elementType)));
+        }
+        return values;
+    }
+
+    private DataInputStream inputOf(byte[] payload, int offset) {
+        return new DataInputStream(
+                new ByteArrayInputStream(payload, offset, payload.length - offset));
+    }
+
+    private void writeRecord(DataOutputStream out, Object record) throws IOException {
+        RecordSchema schema = schemaOf(record.getClass());
+        for (RecordComponent component : schema.components()) {
+            try {
+                writeValue(out, component.getGenericType(), component.getAccessor().invoke(record));
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Cannot read record component " + component.getName(), e);
+            }
+        }
+    }
+
+    private Object readRecord(DataInputStream in, Class<?> type) throws IOException {
+        RecordSchema schema = schemaOf(type);
+        RecordComponent[] components = schema.components();
+        Object[] arguments = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            arguments[i] = readValue(in, components[i].getGenericType());
+        }
+        try {
+            return schema.constructor().newInstance(arguments);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Cannot create record " + type.getName(), e);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Type genericType, Object value)
+            throws IOException {
+        Class<?> type = rawType(genericType);
+        if (type.isPrimitive()) {
+            writePrimitive(out, type, value);
+            return;
+        }
+        out.writeBoolean(value != null);
+        if (value == null) {
+            return;
+        }
+        if (type == String.class) {
+            writeString(out, (String) value);
+        } else if (type == Long.class) {
+            out.writeLong((Long) value);
+        } else if (type == Integer.class) {
+            out.writeInt((Integer) value);
+        } else if (type == Boolean.class) {
+            out.writeBoolean((Boolean) value);
+        } else if (type == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeInt(decimal.scale());
+            writeBytes(out, decimal.unscaledValue().toByteArray());
+        } else if (type == LocalDate.class) {
+            out.writeLong(((LocalDate) value).toEpochDay());
+        } else if (type == LocalDateTime.class) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(dateTime.getNano());
+        } else if (type.isEnum()) {
+            writeString(out, ((Enum<?>) value).name());
+        } else if (type == List.class) {
+            List<?> list = (List<?>) value;
+            Type elementType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, elementType, element);
+            }
+        } else if (type.isRecord()) {
+            writeRecord(out, value);
+        } else {
+            throw new IOException("Unsupported cache value type: " + type.getName());
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readValue(DataInputStream in, Type genericType) throws IOException {
+        Class<?> type = rawType(genericType);
+        if (type.isPrimitive()) {
+            return readPrimitive(in, type);
+        }
+        if (!in.readBoolean()) {
+            return null;
+        }
+        if (type == String.class) {
+            return readString(in);
+        } else if (type == Long.class) {
+            return in.readLong();
+        } else if (type == Integer.class) {
+            return in.readInt();
+        } else if (type == Boolean.class) {
+            return in.readBoolean();
+        } else if (type == BigDecimal.class) {
+            int scale = in.readInt();
+            return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        } else if (type == LocalDate.class) {
+            return LocalDate.ofEpochDay(in.readLong());
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        } else if (type.isEnum()) {
+            String name = readString(in);
+            try {
+                return Enum.valueOf((Class<Enum>) type, name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown constant " + name + " of " + type.getName(), e);
+            }
+        } else if (type == List.class) {
+            Type elementType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            int size = in.readInt();
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue(in, elementType));
+            }
+            return list;
+        } else if (type.isRecord()) {
+            return readRecord(in, type);
+        }
+        throw new IOException("Unsupported cache value type: " + type.getName());
+    }
+
+    private void writePrimitive(DataOutputStream out, Class<?> type, Object value)
+            throws IOException {
+        if (type == long.class) {
+            out.writeLong((Long) value);
+        } else if (type == int.class) {
+            out.writeInt((Integer) value);
+        } else if (type == boolean.class) {
+            out.writeBoolean((Boolean) value);
+        } else {
+            throw new IOException("Unsupported cache value type: " + type.getName());
+        }
+    }
+
+    private Object readPrimitive(DataInputStream in, Class<?> type) throws IOException {
+        if (type == long.class) {
+            return in.readLong();
+        } else if (type == int.class) {
+            return in.readInt();
+        } else if (type == boolean.class) {
+            return in.readBoolean();
+        }
+        throw new IOException("Unsupported cache value type: " + type.getName());
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] value = new byte[in.readInt()];
+        in.readFully(value);
+        return value;
+    }
+
+    private Class<?> rawType(Type genericType) {
+        if (genericType instanceof ParameterizedType parameterizedType) {
+            return (Class<?>) parameterizedType.getRawType();
+        }
+        return (Class<?>) genericType;
+    }
+
+    private RecordSchema schemaOf(Class<?> type) {
+        return schemas.computeIfAbsent(type, this::buildSchema);
+    }
+
+    private RecordSchema buildSchema(Class<?> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException("Binary cache codec supports records only: "
+                    + type.getName());
+        }
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+            return new RecordSchema(components, constructor, describe(type).hashCode());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("No canonical constructor for " + type.getName(), e);
+        }
+    }
+
+    private String describe(Type genericType) {
+        Class<?> type = rawType(genericType);
+        if (type == List.class) {
+            return "List<" + describe(((ParameterizedType) genericType)
+                    .getActualTypeArguments()[0]) + ">";
+        }
+        if (!type.isRecord()) {
+            return type.getName();
+        }
+        StringJoiner descriptor = new StringJoiner(",", type.getName() + "(", ")");
+        for (RecordComponent component : type.getRecordComponents()) {
+            descriptor.add(component.getName() + ":" + describe(component.getGenericType()));
+        }
+        return descriptor.toString();
+    }
+
+    private record RecordSchema(
+            RecordComponent[] components,
+            Constructor<?> constructor,
+            int fingerprint
+    ) {
+    }
+}
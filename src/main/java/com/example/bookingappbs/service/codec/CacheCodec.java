@@ -0,0 +1,18 @@
+package com.example.bookingappbs.service.codec;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface CacheCodec {
+    String name();
+
+    byte id();
+
+    boolean supports(Object value);
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] payload, int offset, Class<T> type) throws IOException;
+
+    <T> List<T> decodeList(byte[] payload, int offset, Class<T> elementType) throws IOException;
+}
@@ -0,0 +1,56 @@
+package com.example.bookingappbs.service.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class JsonCacheCodec implements CacheCodec {
+    private static final byte ID = 1;
+
+    private final Map<Class<?>, JavaType> listTypes = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return true;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, int offset, Class<T> type) throws IOException {
+        return objectMapper.readValue(payload, offset, payload.length - offset, type);
+    }
+
+    @Override
+    public <T> List<T> decodeList(
+            byte[] payload,
+            int offset,
+            Class<T> elementType
+    ) throws IOException {
+        JavaType listType = listTypes.computeIfAbsent(elementType, type -> objectMapper
+                .getTypeFactory()
+                .constructCollectionType(List.class, type));
+        return objectMapper.readValue(payload, offset, payload.length - offset, listType);
+    }
+}
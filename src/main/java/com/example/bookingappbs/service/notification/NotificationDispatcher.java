@@ -0,0 +1,199 @@
+package com.example.bookingappbs.service.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+@Service
+public class NotificationDispatcher {
+    private static final Logger logger = LogManager.getLogger(NotificationDispatcher.class);
+    private static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+    private static final String ENTRY_SEPARATOR = "\n\n";
+
+    private final TelegramService telegramService;
+    private final TokenBucket rateLimiter;
+    private final int maxDigestEntries;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public NotificationDispatcher(
+            TelegramService telegramService,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.digest.max-entries}") int maxDigestEntries,
+            @Value("${notifications.rate-limit.capacity}") int rateLimitCapacity,
+            @Value("${notifications.rate-limit.refill-period}") Duration refillPeriod,
+            @Value("${notifications.retry.max-attempts}") int maxAttempts,
+            @Value("${notifications.retry.initial-backoff}") Duration initialBackoff,
+            @Value("${notifications.retry.max-backoff}") Duration maxBackoff
+    ) {
+        this.telegramService = telegramService;
+        this.rateLimiter = new TokenBucket(rateLimitCapacity, refillPeriod);
+        this.maxDigestEntries = maxDigestEntries;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sentCounter = meterRegistry.counter("notifications.sent");
+        this.failedCounter = meterRegistry.counter("notifications.failed");
+    }
+
+    public boolean deliver(List<String> messages) {
+        return deliver(messages, Function.identity(), delivered -> { });
+    }
+
+    /**
+     * Sends one digest per notification title and reports each delivered digest's items to
+     * {@code onDelivered} before moving on, so a later failure only leaves the undelivered
+     * digests to retry.
+     */
+    public <T> boolean deliver(
+            List<T> items,
+            Function<T, String> messageOf,
+            Consumer<List<T>> onDelivered
+    ) {
+        Map<String, List<T>> itemsByTitle = new LinkedHashMap<>();
+        for (T item : items) {
+            itemsByTitle.computeIfAbsent(title(messageOf.apply(item)), key -> new ArrayList<>())
+                    .add(item);
+        }
+        for (Map.Entry<String, List<T>> group : itemsByTitle.entrySet()) {
+            List<String> messages = group.getValue().stream().map(messageOf).toList();
+            for (String digest : digest(group.getKey(), messages)) {
+                if (!sendDigest(digest)) {
+                    return false;
+                }
+            }
+            onDelivered.accept(group.getValue());
+        }
+        return true;
+    }
+
+    private List<String> digest(String title, List<String> grouped) {
+        if (grouped.size() == 1) {
+            return split(grouped);
+        }
+        List<String> bodies = grouped.stream()
+                .map(message -> message.substring(message.indexOf(title) + title.length())
+                        .strip())
+                .filter(body -> !body.isEmpty())
+                .toList();
+        List<String> entries = new ArrayList<>();
+        entries.add(stripColon(title) + " (" + grouped.size() + " notifications)");
+        entries.addAll(bodies.subList(0, Math.min(maxDigestEntries, bodies.size())));
+        if (bodies.size() > maxDigestEntries) {
+            entries.add("...and " + (bodies.size() - maxDigestEntries) + " more");
+        }
+        return split(entries);
+    }
+
+    private boolean sendDigest(String message) {
+        Duration backoff = initialBackoff;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rateLimiter.acquire();
+                telegramService.send(message);
+                sentCounter.increment();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Notification delivery interrupted");
+                return false;
+            } catch (TelegramApiException e) {
+                if (!isRetryable(e)) {
+                    failedCounter.increment();
+                    logger.error("Notification was rejected by Telegram, dropping it", e);
+                    return true;
+                }
+                if (attempt >= maxAttempts) {
+                    failedCounter.increment();
+                    logger.error("Failed to send notification after {} attempts", attempt, e);
+                    return false;
+                }
+                Duration delay = retryAfter(e, backoff);
+                logger.warn("Failed to send notification (attempt {}), retrying in {}",
+                        attempt, delay);
+                if (!sleep(delay)) {
+                    return false;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0
+                        ? maxBackoff : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private boolean isRetryable(TelegramApiException e) {
+        if (e instanceof TelegramApiRequestException requestException
+                && requestException.getErrorCode() != null) {
+            int errorCode = requestException.getErrorCode();
+            return errorCode == TOO_MANY_REQUESTS || errorCode >= SERVER_ERROR;
+        }
+        return true;
+    }
+
+    private Duration retryAfter(TelegramApiException e, Duration backoff) {
+        if (e instanceof TelegramApiRequestException requestException
+                && requestException.getParameters() != null
+                && requestException.getParameters().getRetryAfter() != null) {
+            return Duration.ofSeconds(requestException.getParameters().getRetryAfter());
+        }
+        return backoff;
+    }
+
+    private boolean sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private List<String> split(List<String> entries) {
+        List<String> messages = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String entry : entries) {
+            String text = entry.length() > MAX_MESSAGE_LENGTH
+                    ? entry.substring(0, MAX_MESSAGE_LENGTH) : entry;
+            if (current.length() > 0
+                    && current.length() + ENTRY_SEPARATOR.length() + text.length()
+                    > MAX_MESSAGE_LENGTH) {
+                messages.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append(ENTRY_SEPARATOR);
+            }
+            current.append(text);
+        }
+        if (current.length() > 0) {
+            messages.add(current.toString());
+        }
+        return messages;
+    }
+
+    private String title(String message) {
+        int lineEnd = message.indexOf('\n');
+        return (lineEnd < 0 ? message : message.substring(0, lineEnd)).strip();
+    }
+
+    private String stripColon(String title) {
+        return title.endsWith(":") ? title.substring(0, title.length() - 1) : title;
+    }
+}
@@ -1,5 +1,5 @@
 package com.example.bookingappbs.service.notification;
 
 public interface NotificationService {
-    void sendNotification(String message);
+    void sendNotification(String dedupKey, String message);
 }
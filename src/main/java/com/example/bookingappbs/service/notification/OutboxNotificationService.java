@@ -0,0 +1,65 @@
+package com.example.bookingappbs.service.notification;
+
+import com.example.bookingappbs.model.OutboxMessage;
+import com.example.bookingappbs.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OutboxNotificationService implements NotificationService {
+    private static final Logger logger = LogManager.getLogger(OutboxNotificationService.class);
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notifications.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Override
+    public void sendNotification(String dedupKey, String message) {
+        if (outboxMessageRepository.insertIfAbsent(dedupKey, message, LocalDateTime.now()) == 0) {
+            logger.info("Notification {} is already in the outbox, skipping.", dedupKey);
+        }
+    }
+
+    public List<OutboxMessage> claimBatch(int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> batch = outboxMessageRepository
+                .findDeliverable(now, PageRequest.of(0, batchSize));
+        List<OutboxMessage> claimed = new ArrayList<>(batch.size());
+        for (OutboxMessage outboxMessage : batch) {
+            if (outboxMessage.getAttempts() >= maxAttempts) {
+                outboxMessage.setFailedAt(now);
+                meterRegistry.counter("notifications.outbox.failed").increment();
+                logger.error("Notification {} was not delivered after {} attempts, giving up.",
+                        outboxMessage.getDedupKey(), outboxMessage.getAttempts());
+                continue;
+            }
+            outboxMessage.setAttempts(outboxMessage.getAttempts() + 1);
+            outboxMessage.setAvailableAt(now.plus(lease));
+            claimed.add(outboxMessage);
+        }
+        return claimed;
+    }
+
+    public void markSent(Collection<Long> ids) {
+        outboxMessageRepository.markSent(ids, LocalDateTime.now());
+    }
+
+    public int purgeSentBefore(LocalDateTime sentBefore) {
+        return outboxMessageRepository.deleteSentBefore(sentBefore);
+    }
+}
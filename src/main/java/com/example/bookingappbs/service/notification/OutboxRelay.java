@@ -0,0 +1,87 @@
+package com.example.bookingappbs.service.notification;
+
+import com.example.bookingappbs.config.AsyncConfig;
+import com.example.bookingappbs.model.OutboxMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LogManager.getLogger(OutboxRelay.class);
+
+    private final OutboxNotificationService outboxNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final Executor notificationExecutor;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retention;
+    private final AtomicBoolean relaying = new AtomicBoolean();
+
+    public OutboxRelay(
+            OutboxNotificationService outboxNotificationService,
+            NotificationDispatcher notificationDispatcher,
+            @Qualifier(AsyncConfig.NOTIFICATION_EXECUTOR) Executor notificationExecutor,
+            @Value("${notifications.outbox.batch-size}") int batchSize,
+            @Value("${notifications.outbox.lease}") Duration lease,
+            @Value("${notifications.outbox.retention}") Duration retention
+    ) {
+        this.outboxNotificationService = outboxNotificationService;
+        this.notificationDispatcher = notificationDispatcher;
+        this.notificationExecutor = notificationExecutor;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.coalesce-window}",
+            initialDelayString = "${notifications.coalesce-window}")
+    public void relay() {
+        if (!relaying.compareAndSet(false, true)) {
+            return;
+        }
+        notificationExecutor.execute(() -> {
+            try {
+                while (relayBatch()) {
+                    logger.debug("Outbox batch relayed, checking for more.");
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to relay notification outbox", e);
+            } finally {
+                relaying.set(false);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${notifications.outbox.purge-cron}")
+    public void purge() {
+        int purged = outboxNotificationService
+                .purgeSentBefore(LocalDateTime.now().minus(retention));
+        logger.info("Purged {} sent notifications from the outbox.", purged);
+    }
+
+    private boolean relayBatch() {
+        List<OutboxMessage> batch = outboxNotificationService.claimBatch(batchSize, lease);
+        if (batch.isEmpty()) {
+            return false;
+        }
+        boolean delivered = notificationDispatcher.deliver(batch, OutboxMessage::getMessage,
+                sent -> outboxNotificationService.markSent(sent.stream()
+                        .map(OutboxMessage::getId)
+                        .toList()));
+        if (!delivered) {
+            logger.warn("Outbox batch of {} notifications was not fully delivered, "
+                    + "undelivered digests will be retried after {}", batch.size(), lease);
+            return false;
+        }
+        return batch.size() == batchSize;
+    }
+}
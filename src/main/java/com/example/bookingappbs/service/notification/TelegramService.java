@@ -1,48 +1,28 @@
 package com.example.bookingappbs.service.notification;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.bots.DefaultAbsSender;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.meta.generics.LongPollingBot;
 
 @Service
-public class TelegramService extends TelegramLongPollingBot
-        implements NotificationService, LongPollingBot {
-    @Value("${telegram.bot.token}")
-    private String botToken;
-    @Value("${telegram.chat.id}")
-    private String chatId;
+public class TelegramService extends DefaultAbsSender {
+    private final String chatId;
 
-    @Override
-    public String getBotUsername() {
-        return "BookingAppNotifications_bot";
+    public TelegramService(
+            @Value("${telegram.bot.token}") String botToken,
+            @Value("${telegram.chat.id}") String chatId
+    ) {
+        super(new DefaultBotOptions(), botToken);
+        this.chatId = chatId;
     }
 
-    @Override
-    public String getBotToken() {
-        return botToken;
-    }
-
-    @Override
-    public void onUpdateReceived(Update update) {
-        //It's a method to process incoming messages, if needed
-    }
-
-    @Override
-    @Async
-    public void sendNotification(String message) {
+    public void send(String message) throws TelegramApiException {
         SendMessage sendMessage = new SendMessage();
         sendMessage.setChatId(chatId);
         sendMessage.setText(message);
-
-        try {
-            execute(sendMessage);
-        } catch (TelegramApiException e) {
-            throw new RuntimeException("Error sending notification", e);
-        }
+        execute(sendMessage);
     }
 }
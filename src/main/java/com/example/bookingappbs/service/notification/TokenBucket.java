@@ -0,0 +1,49 @@
+package com.example.bookingappbs.service.notification;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucket {
+    private final long capacity;
+    private final long refillPeriodNanos;
+    private long tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, Duration refillPeriod) {
+        this.capacity = capacity;
+        this.refillPeriodNanos = Math.max(refillPeriod.toNanos(), 1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens > 0) {
+            tokens--;
+            return 0;
+        }
+        return lastRefill + refillPeriodNanos - System.nanoTime();
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long refills = (now - lastRefill) / refillPeriodNanos;
+        if (refills <= 0) {
+            return;
+        }
+        if (tokens + refills >= capacity) {
+            tokens = capacity;
+            lastRefill = now;
+        } else {
+            tokens += refills;
+            lastRefill += refills * refillPeriodNanos;
+        }
+    }
+}
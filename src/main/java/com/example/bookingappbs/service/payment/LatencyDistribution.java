@@ -0,0 +1,19 @@
+package com.example.bookingappbs.service.payment;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+public record LatencyDistribution(Duration median, Duration p99) {
+    private static final double Z_99 = 2.3263;
+
+    public Duration sample(RandomGenerator random) {
+        if (median.isZero()) {
+            return Duration.ZERO;
+        }
+        double sigma = p99.compareTo(median) > 0
+                ? Math.log((double) p99.toNanos() / median.toNanos()) / Z_99
+                : 0;
+        return Duration.ofNanos((long) (median.toNanos()
+                * Math.exp(sigma * random.nextGaussian())));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.bookingappbs.service.payment;
+
+import com.example.bookingappbs.dto.payment.CheckoutSession;
+import com.example.bookingappbs.dto.payment.PaymentDto;
+import com.example.bookingappbs.exception.EntityNotFoundException;
+import com.example.bookingappbs.model.Payment;
+import com.example.bookingappbs.model.Payment.Status;
+import com.stripe.exception.StripeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class PaymentExpiryScheduler {
+    private static final Logger logger = LogManager.getLogger(PaymentExpiryScheduler.class);
+    private final PaymentGateway paymentGateway;
+    private final PaymentService paymentService;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration webhookGrace;
+    private final DelayQueue<PaymentDeadline> deadlines = new DelayQueue<>();
+    private final Set<String> deadLetters = ConcurrentHashMap.newKeySet();
+    private final Counter droppedDeadlines;
+
+    public PaymentExpiryScheduler(
+            PaymentGateway paymentGateway,
+            PaymentService paymentService,
+            MeterRegistry meterRegistry,
+            @Value("${payment.expiry.retry-backoff}") Duration retryBackoff,
+            @Value("${payment.expiry.max-retry-backoff}") Duration maxRetryBackoff,
+            @Value("${payment.expiry.webhook-grace}") Duration webhookGrace
+    ) {
+        this.paymentGateway = paymentGateway;
+        this.paymentService = paymentService;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.webhookGrace = webhookGrace;
+        this.droppedDeadlines = meterRegistry.counter("payments.expiry.dropped");
+        Gauge.builder("payments.expiry.scheduled", deadlines, DelayQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("payments.expiry.dead-letters", deadLetters, Set::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        deadlines.clear();
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${payment.expiry.reconcile-interval}",
+            initialDelayString = "${payment.expiry.reconcile-interval}")
+    public void reconcile() {
+        List<Payment> pendingPayments = paymentService.findByStatus(Status.PENDING);
+        Set<String> pendingSessions = pendingPayments.stream()
+                .map(Payment::getSessionId)
+                .collect(Collectors.toSet());
+        deadLetters.retainAll(pendingSessions);
+        Set<String> scheduledSessions = deadlines.stream()
+                .map(PaymentDeadline::sessionId)
+                .collect(Collectors.toSet());
+        int added = 0;
+        for (Payment payment : pendingPayments) {
+            if (!scheduledSessions.contains(payment.getSessionId())
+                    && !deadLetters.contains(payment.getSessionId())) {
+                addDeadline(payment.getSessionId(), payment.getExpiresAt());
+                added++;
+            }
+        }
+        logger.info("Scheduled expiry checks for {} of {} pending payments.",
+                added, pendingPayments.size());
+    }
+
+    public void schedule(String sessionId, LocalDateTime expiresAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addDeadline(sessionId, expiresAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addDeadline(sessionId, expiresAt);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${payment.expiry.poll-interval}")
+    public void expireDueSessions() {
+        PaymentDeadline deadline;
+        while ((deadline = deadlines.poll()) != null) {
+            try {
+                expireIfDue(deadline);
+            } catch (StripeException e) {
+                if (!isRetryable(e)) {
+                    deadLetters.add(deadline.sessionId());
+                    droppedDeadlines.increment();
+                    logger.error("Stripe rejected expiry check of session {} with status {}, "
+                            + "dropping its deadline: {}",
+                            deadline.sessionId(), e.getStatusCode(), e.getMessage());
+                    continue;
+                }
+                retry(deadline, e);
+            } catch (RuntimeException e) {
+                retry(deadline, e);
+            }
+        }
+    }
+
+    private void retry(PaymentDeadline deadline, Exception e) {
+        Duration backoff = backoff(deadline.attempts());
+        logger.warn("Failed to check expiry of Stripe session {}, retrying in {}: {}",
+                deadline.sessionId(), backoff, e.getMessage());
+        deadlines.add(new PaymentDeadline(deadline.sessionId(),
+                Instant.now().plus(backoff), deadline.attempts() + 1));
+    }
+
+    private void expireIfDue(PaymentDeadline deadline) throws StripeException {
+        try {
+            PaymentDto payment = paymentService.findBySessionId(deadline.sessionId());
+            if (!payment.status().equals(Status.PENDING.toString())) {
+                return;
+            }
+        } catch (EntityNotFoundException e) {
+            logger.warn("Payment for Stripe session {} no longer exists, dropping its deadline.",
+                    deadline.sessionId());
+            return;
+        }
+
+        CheckoutSession session = paymentGateway.retrieveSession(deadline.sessionId());
+        if (PaymentGateway.SESSION_COMPLETE.equals(session.status())) {
+            return;
+        }
+        if (session.expiresAt() != null) {
+            Instant expiresAt = session.expiresAt().atZone(ZoneId.systemDefault()).toInstant();
+            if (expiresAt.isAfter(Instant.now())) {
+                deadlines.add(new PaymentDeadline(deadline.sessionId(),
+                        expiresAt.plus(webhookGrace), 0));
+                return;
+            }
+        }
+        paymentService.expirePendingPayment(deadline.sessionId());
+    }
+
+    private void addDeadline(String sessionId, LocalDateTime expiresAt) {
+        Instant dueAt = expiresAt == null
+                ? Instant.now()
+                : expiresAt.atZone(ZoneId.systemDefault()).toInstant().plus(webhookGrace);
+        deadlines.add(new PaymentDeadline(sessionId, dueAt, 0));
+    }
+
+    private boolean isRetryable(StripeException e) {
+        // Client errors such as an unknown session will fail the same way on every attempt
+        Integer statusCode = e.getStatusCode();
+        return statusCode == null || statusCode < 400 || statusCode >= 500
+                || statusCode == 409 || statusCode == 429;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts, 16));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    private record PaymentDeadline(String sessionId, Instant dueAt, int attempts)
+            implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), dueAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS),
+                    other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
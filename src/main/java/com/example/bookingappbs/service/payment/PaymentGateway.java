@@ -0,0 +1,19 @@
+package com.example.bookingappbs.service.payment;
+
+import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.dto.payment.CheckoutSession;
+import com.stripe.exception.StripeException;
+import java.math.BigDecimal;
+
+public interface PaymentGateway {
+    String SESSION_COMPLETE = "complete";
+    String SESSION_EXPIRED = "expired";
+    String SESSION_OPEN = "open";
+    String PAYMENT_STATUS_PAID = "paid";
+    String PAYMENT_STATUS_UNPAID = "unpaid";
+
+    CheckoutSession createPaymentSession(BookingDto bookingDto, BigDecimal totalAmount)
+            throws StripeException;
+
+    CheckoutSession retrieveSession(String sessionId) throws StripeException;
+}
@@ -16,6 +16,8 @@ public interface PaymentProcessingService {
 
     String handlePaymentSuccess(String sessionId, Model model);
 
+    boolean completePayment(String sessionId);
+
     String getPaymentCancelledMessage(String sessionId);
 
     String renewPaymentSession(Long paymentId, User user, Model model);
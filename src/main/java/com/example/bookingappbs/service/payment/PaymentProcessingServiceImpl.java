@@ -2,19 +2,17 @@ package com.example.bookingappbs.service.payment;
 
 import com.example.bookingappbs.dto.accommodation.AccommodationDto;
 import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.dto.payment.CheckoutSession;
 import com.example.bookingappbs.dto.payment.CreatePaymentRequestDto;
 import com.example.bookingappbs.dto.payment.PaymentDto;
 import com.example.bookingappbs.exception.EntityNotFoundException;
-import com.example.bookingappbs.model.Payment;
 import com.example.bookingappbs.model.Payment.Status;
 import com.example.bookingappbs.model.User;
 import com.example.bookingappbs.service.accommodation.AccommodationService;
 import com.example.bookingappbs.service.booking.BookingService;
 import com.example.bookingappbs.service.notification.NotificationService;
 import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
 import java.math.BigDecimal;
-import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -22,7 +20,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
@@ -56,11 +53,12 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
     @Value("${attribute.message}")
     private String attributeMessage;
 
-    private final StripeService stripeService;
+    private final PaymentGateway paymentGateway;
     private final PaymentService paymentService;
     private final BookingService bookingService;
     private final AccommodationService accommodationService;
     private final NotificationService notificationService;
+    private final PaymentExpiryScheduler paymentExpiryScheduler;
 
     @Override
     @Transactional(readOnly = true)
@@ -102,28 +100,35 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
         }
         BigDecimal totalAmount = accommodationDto.dailyRate().multiply(BigDecimal.valueOf(days));
 
-        String sessionId = stripeService.createPaymentSession(bookingDto, totalAmount);
-        String sessionUrl = stripeService.retrieveSession(sessionId).getUrl();
+        CheckoutSession session = paymentGateway.createPaymentSession(bookingDto, totalAmount);
+        String sessionId = session.id();
 
         CreatePaymentRequestDto paymentRequestDto = new CreatePaymentRequestDto(
                 bookingId,
-                sessionUrl,
+                session.url(),
                 sessionId,
-                totalAmount
+                totalAmount,
+                session.expiresAt()
         );
 
         PaymentDto savedPayment = paymentService.save(paymentRequestDto);
+        paymentExpiryScheduler.schedule(sessionId, paymentRequestDto.expiresAt());
         logger.info("Payment information saved for booking ID {}: {}", bookingId, savedPayment);
         return savedPayment;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public String handlePaymentSuccess(String sessionId, Model model) {
         logger.info("Handling successful payment for Stripe session ID: {}", sessionId);
         try {
-            Session session = stripeService.retrieveSession(sessionId);
-            if (session.getPaymentStatus().equals(Status.PAID.toString())) {
+            PaymentDto paymentDto = paymentService.findBySessionId(sessionId);
+            if (paymentDto.status().equals(Status.PAID.toString())) {
+                logger.info("Payment for session ID {} is already confirmed.", sessionId);
+                model.addAttribute(attributeMessage, paymentSuccessMessage);
+                return "payment_success";
+            }
+            CheckoutSession session = paymentGateway.retrieveSession(sessionId);
+            if (PaymentGateway.PAYMENT_STATUS_PAID.equals(session.paymentStatus())) {
                 return processSuccessfulPayment(sessionId, model);
             } else {
                 logger.warn("Stripe session {} payment status is PENDING.", sessionId);
@@ -143,9 +148,19 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
     }
 
     private String processSuccessfulPayment(String sessionId, Model model) {
+        completePayment(sessionId);
+        model.addAttribute(attributeMessage, paymentSuccessMessage);
+        return "payment_success";
+    }
+
+    @Override
+    public boolean completePayment(String sessionId) {
         PaymentDto paymentDto = paymentService.findBySessionId(sessionId);
+        if (paymentDto.status().equals(Status.PAID.toString())) {
+            logger.info("Payment for session ID {} is already marked as paid.", sessionId);
+            return false;
+        }
         paymentService.updatePaymentStatus(sessionId, Status.PAID);
-        model.addAttribute(attributeMessage, paymentSuccessMessage);
 
         BookingDto bookingDto = bookingService.getBookingById(null, paymentDto.bookingId());
         AccommodationDto accommodationDto = accommodationService
@@ -154,7 +169,7 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
 
         logger.info("Payment success processed and notification sent for session ID: {}",
                 sessionId);
-        return "payment_success";
+        return true;
     }
 
     private void sendPaymentSuccessNotification(
@@ -181,7 +196,7 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
                 currency,
                 sessionId
         );
-        notificationService.sendNotification(telegramMessage);
+        notificationService.sendNotification("payment-succeeded:" + sessionId, telegramMessage);
         logger.info("Payment success notification sent for session ID: {}", sessionId);
     }
 
@@ -227,11 +242,13 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
         BigDecimal totalAmount = accommodationDto.dailyRate().multiply(BigDecimal.valueOf(days));
 
         try {
-            String newSessionId = stripeService.createPaymentSession(bookingDto, totalAmount);
-            Session newSession = stripeService.retrieveSession(newSessionId);
-            String newSessionUrl = newSession.getUrl();
+            CheckoutSession newSession = paymentGateway
+                    .createPaymentSession(bookingDto, totalAmount);
+            String newSessionUrl = newSession.url();
 
-            paymentService.updateSessionIdAndUrl(paymentId, newSessionId, newSessionUrl);
+            paymentService.updateSessionIdAndUrl(paymentId, newSession.id(), newSessionUrl,
+                    newSession.expiresAt());
+            paymentExpiryScheduler.schedule(newSession.id(), newSession.expiresAt());
 
             return "redirect:" + newSessionUrl;
         } catch (StripeException e) {
@@ -242,24 +259,4 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
             return "payment_error";
         }
     }
-
-    @Scheduled(fixedDelay = 60000)
-    public void checkExpiredSessions() {
-        logger.info("Scheduled task: Checking for expired Stripe sessions.");
-        List<Payment> pendingPayments = paymentService.findByStatus(Status.PENDING);
-        logger.info("Found {} pending payments to check.", pendingPayments.size());
-        for (Payment payment : pendingPayments) {
-            try {
-                Session session = stripeService.retrieveSession(payment.getSessionId());
-                if (session.getExpiresAt() != null
-                        && Instant.ofEpochSecond(session.getExpiresAt()).isBefore(Instant.now())) {
-                    paymentService.updatePaymentStatus(payment.getSessionId(), Status.EXPIRED);
-                }
-            } catch (StripeException e) {
-                throw new RuntimeException("Error retrieving stripe session: "
-                        + payment.getId() + ": " + e.getMessage());
-            }
-        }
-        logger.info("Scheduled task: Finished checking for expired Stripe sessions.");
-    }
 }
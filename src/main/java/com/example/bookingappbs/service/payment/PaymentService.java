@@ -4,6 +4,7 @@ import com.example.bookingappbs.dto.payment.CreatePaymentRequestDto;
 import com.example.bookingappbs.dto.payment.PaymentDto;
 import com.example.bookingappbs.model.Payment;
 import com.example.bookingappbs.model.Payment.Status;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 
@@ -16,13 +17,22 @@ public interface PaymentService {
 
     PaymentDto findBySessionId(String sessionId);
 
+    boolean existsBySessionId(String sessionId);
+
     void updatePaymentStatus(String sessionId, Status status);
 
     void updateSessionUrl(Long sessionId, String url);
 
     PaymentDto findById(Long paymentId);
 
-    void updateSessionIdAndUrl(Long paymentId, String sessionId, String sessionUrl);
+    void updateSessionIdAndUrl(
+            Long paymentId,
+            String sessionId,
+            String sessionUrl,
+            LocalDateTime expiresAt
+    );
+
+    boolean expirePendingPayment(String sessionId);
 
     List<Payment> findByStatus(Status status);
 
@@ -9,6 +9,7 @@ import com.example.bookingappbs.model.Payment;
 import com.example.bookingappbs.model.Payment.Status;
 import com.example.bookingappbs.repository.BookingRepository;
 import com.example.bookingappbs.repository.PaymentRepository;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
@@ -81,6 +82,12 @@ public class PaymentServiceImpl implements PaymentService {
         return dto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsBySessionId(String sessionId) {
+        return paymentRepository.existsBySessionId(sessionId);
+    }
+
     @Override
     public void updatePaymentStatus(String sessionId, Status status) {
         logger.info("Updating payment status for session ID: {} to: {}", sessionId, status);
@@ -115,17 +122,34 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    public void updateSessionIdAndUrl(Long paymentId, String sessionId, String sessionUrl) {
+    public void updateSessionIdAndUrl(
+            Long paymentId,
+            String sessionId,
+            String sessionUrl,
+            LocalDateTime expiresAt
+    ) {
         logger.info("Updating session ID and URL for payment ID: {} to session ID: {} and URL: {}",
                 paymentId, sessionId, sessionUrl);
         Payment payment = paymentRepository.findById(paymentId).orElseThrow(() ->
                 new EntityNotFoundException("Cannot find payment with id: " + paymentId));
         payment.setSessionId(sessionId);
         payment.setSessionUrl(sessionUrl);
+        payment.setExpiresAt(expiresAt);
+        payment.setStatus(Status.PENDING);
         paymentRepository.save(payment);
         logger.info("Session ID and URL updated successfully for payment ID: {}", paymentId);
     }
 
+    @Override
+    public boolean expirePendingPayment(String sessionId) {
+        boolean expired = paymentRepository
+                .updateStatusIfCurrent(sessionId, Status.PENDING, Status.EXPIRED) > 0;
+        if (expired) {
+            logger.info("Payment with session ID {} expired.", sessionId);
+        }
+        return expired;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Payment> findByStatus(Status status) {
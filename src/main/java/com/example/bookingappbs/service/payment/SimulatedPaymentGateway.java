@@ -0,0 +1,140 @@
+package com.example.bookingappbs.service.payment;
+
+import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.dto.payment.CheckoutSession;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.StripeException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@Service
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "simulator")
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private static final Logger logger = LogManager.getLogger(SimulatedPaymentGateway.class);
+    private static final String SESSION_ID_PREFIX = "cs_sim_";
+    private static final int NOT_FOUND = 404;
+    private static final long CALL_SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final Map<String, SimulatedSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+    private final long seed;
+    private final LatencyDistribution createLatency;
+    private final LatencyDistribution retrieveLatency;
+    private final double failureRate;
+    private final double completionRate;
+    private final Duration completionDelay;
+    private final Duration sessionTtl;
+    private final Duration sessionRetention;
+    private final String domain;
+
+    public SimulatedPaymentGateway(
+            @Value("${payment.simulator.seed}") long seed,
+            @Value("${payment.simulator.create-latency.median}") Duration createMedian,
+            @Value("${payment.simulator.create-latency.p99}") Duration createP99,
+            @Value("${payment.simulator.retrieve-latency.median}") Duration retrieveMedian,
+            @Value("${payment.simulator.retrieve-latency.p99}") Duration retrieveP99,
+            @Value("${payment.simulator.failure-rate}") double failureRate,
+            @Value("${payment.simulator.completion-rate}") double completionRate,
+            @Value("${payment.simulator.completion-delay}") Duration completionDelay,
+            @Value("${payment.simulator.session-ttl}") Duration sessionTtl,
+            @Value("${payment.simulator.session-retention}") Duration sessionRetention,
+            @Value("${domain}") String domain
+    ) {
+        this.seed = seed;
+        this.createLatency = new LatencyDistribution(createMedian, createP99);
+        this.retrieveLatency = new LatencyDistribution(retrieveMedian, retrieveP99);
+        this.failureRate = failureRate;
+        this.completionRate = completionRate;
+        this.completionDelay = completionDelay;
+        this.sessionTtl = sessionTtl;
+        this.sessionRetention = sessionRetention;
+        this.domain = domain;
+        logger.warn("Payments are handled by the local simulator, no real charges are made.");
+    }
+
+    @Override
+    public CheckoutSession createPaymentSession(BookingDto bookingDto, BigDecimal totalAmount)
+            throws StripeException {
+        simulateCall(createLatency);
+        LocalDateTime now = LocalDateTime.now();
+        long sessionNumber = sequence.incrementAndGet();
+        String sessionId = SESSION_ID_PREFIX + sessionNumber;
+        boolean completes = new SplittableRandom(seed + sessionNumber).nextDouble()
+                < completionRate;
+        SimulatedSession session = new SimulatedSession(sessionId,
+                completes ? now.plus(completionDelay) : null, now.plus(sessionTtl));
+        sessions.put(sessionId, session);
+
+        logger.debug("Simulated session {} created for booking ID: {}, amount: {}, completes: {}",
+                sessionId, bookingDto.id(), totalAmount, completes);
+        return toCheckoutSession(session, now);
+    }
+
+    @Override
+    public CheckoutSession retrieveSession(String sessionId) throws StripeException {
+        simulateCall(retrieveLatency);
+        SimulatedSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new InvalidRequestException("No such checkout.session: " + sessionId,
+                    "id", null, null, NOT_FOUND, null);
+        }
+        return toCheckoutSession(session, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${payment.simulator.session-retention}",
+            initialDelayString = "${payment.simulator.session-retention}")
+    public void purgeExpiredSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(sessionRetention);
+        sessions.values().removeIf(session -> session.expiresAt().isBefore(cutoff));
+    }
+
+    private void simulateCall(LatencyDistribution latency) throws StripeException {
+        // Each call draws from its own generator derived from the seed and the call number,
+        // so concurrent callers neither contend on nor corrupt a shared Random
+        SplittableRandom random = new SplittableRandom(
+                seed ^ calls.incrementAndGet() * CALL_SEED_STRIDE);
+        Duration delay = latency.sample(random);
+        boolean fails = random.nextDouble() < failureRate;
+        try {
+            Thread.sleep(delay.toMillis(), delay.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException("Simulated payment gateway call interrupted", e);
+        }
+        if (fails) {
+            throw new ApiConnectionException("Simulated payment gateway failure");
+        }
+    }
+
+    private CheckoutSession toCheckoutSession(SimulatedSession session, LocalDateTime now) {
+        boolean paid = session.paidAt() != null
+                && session.paidAt().isBefore(session.expiresAt())
+                && !now.isBefore(session.paidAt());
+        String status = paid ? SESSION_COMPLETE
+                : now.isBefore(session.expiresAt()) ? SESSION_OPEN : SESSION_EXPIRED;
+        String url = UriComponentsBuilder.fromUriString(domain)
+                .path(session.paidAt() != null ? "/payments/success" : "/payments/cancel")
+                .queryParam("session_id", session.id())
+                .build()
+                .toUriString();
+        return new CheckoutSession(session.id(), url, status,
+                paid ? PAYMENT_STATUS_PAID : PAYMENT_STATUS_UNPAID, session.expiresAt());
+    }
+
+    private record SimulatedSession(String id, LocalDateTime paidAt, LocalDateTime expiresAt) {
+    }
+}
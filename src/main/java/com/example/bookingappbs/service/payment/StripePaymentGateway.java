@@ -1,78 +1,70 @@
 package com.example.bookingappbs.service.payment;
 
 import com.example.bookingappbs.dto.booking.BookingDto;
-import com.stripe.Stripe;
+import com.example.bookingappbs.dto.payment.CheckoutSession;
+import com.stripe.StripeClient;
 import com.stripe.exception.StripeException;
-import com.stripe.model.Charge;
 import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
 import com.stripe.param.checkout.SessionCreateParams.LineItem;
-import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
-public class StripeService {
-    private static final Logger logger = LogManager.getLogger(StripeService.class);
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stripe", matchIfMissing = true)
+public class StripePaymentGateway implements PaymentGateway {
+    private static final Logger logger = LogManager.getLogger(StripePaymentGateway.class);
+
+    private final StripeClient stripeClient;
 
-    @Value("${stripe_secret_key}")
-    private String secretKey;
     @Value("${domain}")
     private String domain;
     @Value("${currency}")
     private String currency;
     @Value("${payment.description.prefix}")
     private String descriptionPrefix;
-    @Value("${limit.for.user.metadata}")
-    private int limitForUserMetadata;
-
-    @PostConstruct
-    public void init() {
-        Stripe.apiKey = secretKey;
-    }
 
-    public String createPaymentSession(BookingDto bookingDto, BigDecimal totalAmount)
+    @Override
+    public CheckoutSession createPaymentSession(BookingDto bookingDto, BigDecimal totalAmount)
             throws StripeException {
         logger.info("Creating Stripe payment session for booking ID: {}, amount: {} {}",
                 bookingDto.id(), totalAmount, currency);
         SessionCreateParams params = buildSessionCreateParams(bookingDto, totalAmount);
-        Session session = Session.create(params);
+        Session session = stripeClient.checkout().sessions().create(params);
 
         logger.info("Stripe payment session created successfully. Session ID: {}",
                 session.getId());
-        return session.getId();
-    }
-
-    @Transactional(readOnly = true)
-    public List<Charge> getChargesForUserId(Long userId) throws StripeException {
-        logger.info("Retrieving Stripe charges for user ID: {}", userId);
-        Map<String, Object> params = new HashMap<>();
-        params.put("limit", limitForUserMetadata);
-        params.put("metadata[user_id]", userId.toString());
-        List<Charge> charges = Charge.list(params).getData();
-
-        logger.info("Retrieved {} charges for user ID: {}.", charges.size(), userId);
-        return charges;
+        return toCheckoutSession(session);
     }
 
-    @Transactional(readOnly = true)
-    public Session retrieveSession(String sessionId) throws StripeException {
+    @Override
+    public CheckoutSession retrieveSession(String sessionId) throws StripeException {
         logger.info("Retrieving Stripe session with ID: {}", sessionId);
-        Session session = Session.retrieve(sessionId);
+        Session session = stripeClient.checkout().sessions().retrieve(sessionId);
         logger.info("Stripe session {} retrieved successfully. Status: {}",
                 sessionId, session.getStatus());
-        return session;
+        return toCheckoutSession(session);
+    }
+
+    private CheckoutSession toCheckoutSession(Session session) {
+        LocalDateTime expiresAt = session.getExpiresAt() == null
+                ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochSecond(session.getExpiresAt()),
+                        ZoneId.systemDefault());
+        return new CheckoutSession(session.getId(), session.getUrl(), session.getStatus(),
+                session.getPaymentStatus(), expiresAt);
     }
 
     private SessionCreateParams buildSessionCreateParams(
@@ -0,0 +1,52 @@
+package com.example.bookingappbs.service.payment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StripeWebhookProcessor {
+    private static final Logger logger = LogManager.getLogger(StripeWebhookProcessor.class);
+
+    private final StripeWebhookService stripeWebhookService;
+    private final int batchSize;
+    private final Duration retention;
+
+    public StripeWebhookProcessor(
+            StripeWebhookService stripeWebhookService,
+            @Value("${payment.webhook.batch-size}") int batchSize,
+            @Value("${payment.webhook.retention}") Duration retention
+    ) {
+        this.stripeWebhookService = stripeWebhookService;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.poll-interval}")
+    public void processPending() {
+        List<Long> batch;
+        do {
+            batch = stripeWebhookService.claimBatch(batchSize);
+            for (Long id : batch) {
+                try {
+                    stripeWebhookService.apply(id);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to apply Stripe webhook event {}, it will be retried: {}",
+                            id, e.getMessage());
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(cron = "${payment.webhook.purge-cron}")
+    public void purge() {
+        int purged = stripeWebhookService
+                .purgeProcessedBefore(LocalDateTime.now().minus(retention));
+        logger.info("Purged {} processed Stripe webhook events.", purged);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bookingappbs.service.payment;
+
+import com.example.bookingappbs.model.StripeWebhookEvent;
+import com.example.bookingappbs.repository.StripeWebhookEventRepository;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class StripeWebhookService {
+    private static final Logger logger = LogManager.getLogger(StripeWebhookService.class);
+    private static final String SESSION_COMPLETED = "checkout.session.completed";
+    private static final String SESSION_ASYNC_PAYMENT_SUCCEEDED =
+            "checkout.session.async_payment_succeeded";
+    private static final String SESSION_EXPIRED = "checkout.session.expired";
+    private static final Set<String> SUPPORTED_TYPES = Set.of(SESSION_COMPLETED,
+            SESSION_ASYNC_PAYMENT_SUCCEEDED, SESSION_EXPIRED);
+    private static final String PAYMENT_STATUS_PAID = "paid";
+
+    private final StripeWebhookEventRepository stripeWebhookEventRepository;
+    private final PaymentProcessingService paymentProcessingService;
+    private final PaymentService paymentService;
+    private final String webhookSecret;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final int maxAttempts;
+    private final Counter failedEvents;
+
+    public StripeWebhookService(
+            StripeWebhookEventRepository stripeWebhookEventRepository,
+            PaymentProcessingService paymentProcessingService,
+            PaymentService paymentService,
+            @Value("${stripe_webhook_secret}") String webhookSecret,
+            @Value("${payment.webhook.retry-backoff}") Duration retryBackoff,
+            @Value("${payment.webhook.max-retry-backoff}") Duration maxRetryBackoff,
+            @Value("${payment.webhook.max-attempts}") int maxAttempts,
+            MeterRegistry meterRegistry
+    ) {
+        this.stripeWebhookEventRepository = stripeWebhookEventRepository;
+        this.paymentProcessingService = paymentProcessingService;
+        this.paymentService = paymentService;
+        this.webhookSecret = webhookSecret;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.maxAttempts = maxAttempts;
+        this.failedEvents = meterRegistry.counter("payments.webhook.failed");
+    }
+
+    public boolean receive(String payload, String signature)
+            throws SignatureVerificationException {
+        Event event = Webhook.constructEvent(payload, signature, webhookSecret);
+        if (!SUPPORTED_TYPES.contains(event.getType())) {
+            logger.debug("Ignoring Stripe event {} of type {}", event.getId(), event.getType());
+            return false;
+        }
+        if (stripeWebhookEventRepository.existsByEventId(event.getId())) {
+            logger.info("Stripe event {} was already received, skipping.", event.getId());
+            return false;
+        }
+
+        JsonObject session = JsonParser.parseString(event.getDataObjectDeserializer()
+                .getRawJson()).getAsJsonObject();
+        if (SESSION_COMPLETED.equals(event.getType())
+                && !PAYMENT_STATUS_PAID.equals(paymentStatus(session))) {
+            logger.info("Stripe session {} completed without payment, waiting for the "
+                    + "asynchronous payment result.", session.get("id").getAsString());
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StripeWebhookEvent webhookEvent = new StripeWebhookEvent();
+        webhookEvent.setEventId(event.getId());
+        webhookEvent.setEventType(event.getType());
+        webhookEvent.setSessionId(session.get("id").getAsString());
+        webhookEvent.setReceivedAt(now);
+        webhookEvent.setAvailableAt(now);
+        stripeWebhookEventRepository.save(webhookEvent);
+        logger.info("Stripe event {} of type {} stored for session {}", event.getId(),
+                event.getType(), webhookEvent.getSessionId());
+        return true;
+    }
+
+    public List<Long> claimBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StripeWebhookEvent> batch = stripeWebhookEventRepository
+                .findPending(now, PageRequest.of(0, batchSize));
+        List<Long> claimed = new ArrayList<>(batch.size());
+        for (StripeWebhookEvent event : batch) {
+            if (event.getAttempts() >= maxAttempts) {
+                event.setFailedAt(now);
+                failedEvents.increment();
+                logger.error("Stripe event {} for session {} failed {} times, giving up.",
+                        event.getEventId(), event.getSessionId(), event.getAttempts());
+                continue;
+            }
+            event.setAttempts(event.getAttempts() + 1);
+            event.setAvailableAt(now.plus(backoff(event.getAttempts())));
+            claimed.add(event.getId());
+        }
+        return claimed;
+    }
+
+    public void apply(Long id) {
+        StripeWebhookEvent event = stripeWebhookEventRepository.findById(id).orElse(null);
+        if (event == null || event.getProcessedAt() != null) {
+            return;
+        }
+        String sessionId = event.getSessionId();
+        if (!paymentService.existsBySessionId(sessionId)) {
+            logger.warn("Stripe event {} refers to unknown session {}, ignoring it.",
+                    event.getEventId(), sessionId);
+        } else if (SESSION_EXPIRED.equals(event.getEventType())) {
+            paymentService.expirePendingPayment(sessionId);
+        } else {
+            paymentProcessingService.completePayment(sessionId);
+        }
+        event.setProcessedAt(LocalDateTime.now());
+    }
+
+    public int purgeProcessedBefore(LocalDateTime processedBefore) {
+        return stripeWebhookEventRepository.deleteProcessedBefore(processedBefore);
+    }
+
+    private String paymentStatus(JsonObject session) {
+        return session.has("payment_status") && !session.get("payment_status").isJsonNull()
+                ? session.get("payment_status").getAsString() : null;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+}
@@ -11,6 +11,7 @@ import com.example.bookingappbs.model.User;
 import com.example.bookingappbs.model.UserRole;
 import com.example.bookingappbs.repository.RoleRepository;
 import com.example.bookingappbs.repository.UserRepository;
+import com.example.bookingappbs.security.PrincipalCache;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
@@ -29,6 +30,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserResponseDto register(UserRegistrationRequestDto requestDto) {
@@ -59,8 +61,10 @@ public class UserServiceImpl implements UserService {
 
         user.getRoles().clear();
         user.getRoles().add(role);
+        user.setTokenVersion(user.getTokenVersion() + 1);
 
         User savedUser = userRepository.save(user);
+        principalCache.evict(user.getEmail());
         UserResponseDto dto = userMapper.toDto(savedUser);
 
         logger.info("User role updated successfully for user ID: {}", id);
@@ -89,9 +93,17 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() ->
                         new EntityNotFoundException("Can't find current user in DB"));
 
+        final String previousEmail = existingUser.getEmail();
         userMapper.updateUserFromDto(requestDto, existingUser, passwordEncoder);
+        if (requestDto.password() != null || !previousEmail.equals(existingUser.getEmail())) {
+            existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+        }
 
         User savedUser = userRepository.save(existingUser);
+        principalCache.evict(previousEmail);
+        if (!previousEmail.equals(savedUser.getEmail())) {
+            principalCache.evict(savedUser.getEmail());
+        }
         UserResponseDto dto = userMapper.toDto(savedUser);
 
         logger.info("User profile updated successfully for user ID: {}", currentUser.getId());
@@ -0,0 +1,85 @@
+package com.example.bookingappbs.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class AsyncConfigTest {
+    private final AsyncConfig asyncConfig = new AsyncConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Verify a saturated cache maintenance executor runs the task on the caller")
+    public void cacheMaintenanceExecutor_Saturated_RunsOnCallerThread() throws Exception {
+        // Given
+        executor = asyncConfig.cacheMaintenanceExecutor(1, 1, 1, meterRegistry);
+        executor.initialize();
+        saturate(executor);
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        // When
+        executor.execute(() -> runner.set(Thread.currentThread()));
+
+        // Then
+        assertThat(runner.get()).isSameAs(Thread.currentThread());
+        assertThat(rejections(AsyncConfig.CACHE_MAINTENANCE_EXECUTOR)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Verify a saturated notification executor drops the task")
+    public void notificationExecutor_Saturated_DropsTask() throws Exception {
+        // Given
+        executor = asyncConfig.notificationExecutor(1, 1, 1, meterRegistry);
+        executor.initialize();
+        saturate(executor);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // When
+        executor.execute(() -> ran.set(true));
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(ran).isFalse();
+        assertThat(rejections(AsyncConfig.NOTIFICATION_EXECUTOR)).isEqualTo(1.0);
+    }
+
+    private void saturate(ThreadPoolTaskExecutor target) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        target.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await(5, TimeUnit.SECONDS);
+        target.execute(this::awaitRelease);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double rejections(String executorName) {
+        return meterRegistry.counter("executor.rejections", "name", executorName).count();
+    }
+}
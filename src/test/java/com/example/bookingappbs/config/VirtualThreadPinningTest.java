@@ -0,0 +1,104 @@
+package com.example.bookingappbs.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Runs the Postgres and Jedis client paths on virtual threads and fails if the JDK reports a
+ * carrier thread pinned while blocked. Needs Java 21+, a local Postgres and Redis, and
+ * {@code -DargLine=-Djdk.tracePinnedThreads=full} so the flag is set when the JVM starts.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "jdk.tracePinnedThreads", matches = "short|full")
+public class VirtualThreadPinningTest {
+    private static final int TASKS = 200;
+    private static final int POOL_SIZE = 10;
+
+    private final ByteArrayOutputStream pinnedTraces = new ByteArrayOutputStream();
+    private PrintStream standardOut;
+    private HikariDataSource dataSource;
+    private JedisConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("pinning.jdbc.url",
+                "jdbc:postgresql://localhost:5432/booking_app"));
+        dataSource.setUsername(System.getProperty("pinning.jdbc.username", "user"));
+        dataSource.setPassword(System.getProperty("pinning.jdbc.password", "password"));
+        dataSource.setMaximumPoolSize(POOL_SIZE);
+
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("pinning.redis.host", "localhost"),
+                Integer.getInteger("pinning.redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        standardOut = System.out;
+        System.setOut(new PrintStream(pinnedTraces, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(standardOut);
+        connectionFactory.destroy();
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Verify Postgres and Jedis calls on virtual threads never pin their carrier")
+    public void clientCalls_VirtualThreads_DoNotPinCarrier() throws Exception {
+        // When
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            String key = "pinning::" + i;
+            results.add(executor.submit(() -> {
+                try (Connection connection = dataSource.getConnection();
+                        Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT pg_sleep(0.01)");
+                }
+                redisTemplate.opsForValue().set(key, "value", 1, TimeUnit.MINUTES);
+                return redisTemplate.opsForValue().get(key);
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(pinnedTraces.toString(StandardCharsets.UTF_8)).isEmpty();
+    }
+
+    private ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        // Looked up reflectively because the build still targets Java 17
+        return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+    }
+}
@@ -28,8 +28,10 @@ import jakarta.servlet.Filter;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -183,7 +185,7 @@ public class AccommodationControllerTest {
                 .when(accommodationService).save(any(CreateAccommodationRequestDto.class));
 
         Mockito.doNothing()
-                .when(redisService).deletePattern(anyString());
+                .when(redisService).incrementGeneration(anyString());
 
         Mockito.doNothing()
                 .when(redisService).save(anyString(), any());
@@ -262,6 +264,9 @@ public class AccommodationControllerTest {
         ));
 
         //When
+        Mockito.when(redisService.findPageOrLoad(anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation
+                        .<Supplier<List<AccommodationDto>>>getArgument(3).get());
         MvcResult result = mockMvc.perform(get("/accommodations")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -278,6 +283,30 @@ public class AccommodationControllerTest {
         }
     }
 
+    @Test
+    @DisplayName("Search accommodations available for dates in a city")
+    void getAvailableAccommodations_GivenCityFilter_Ok() throws Exception {
+        //Given
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        LocalDate checkOut = checkIn.plusDays(2);
+
+        //When
+        MvcResult result = mockMvc.perform(get("/accommodations/available")
+                        .param("checkIn", checkIn.toString())
+                        .param("checkOut", checkOut.toString())
+                        .param("city", "Kyiv")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        //Then
+        AccommodationDto[] actual = objectMapper.readValue(result.getResponse()
+                .getContentAsByteArray(), AccommodationDto[].class);
+        Assertions.assertEquals(1, actual.length);
+        Assertions.assertEquals(Type.HOUSE, actual[0].type());
+        Assertions.assertEquals("Kyiv", actual[0].location().city());
+    }
+
     @Test
     @DisplayName("Get accommodation information by id")
     void getAccommodationById_GivenAccommodationInCatalog_Ok() throws Exception {
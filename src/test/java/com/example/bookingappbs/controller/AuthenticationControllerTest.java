@@ -3,6 +3,7 @@ package com.example.bookingappbs.controller;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import com.example.bookingappbs.dto.user.RefreshTokenRequestDto;
 import com.example.bookingappbs.dto.user.UserLoginRequestDto;
 import com.example.bookingappbs.dto.user.UserLoginResponseDto;
 import com.example.bookingappbs.dto.user.UserRegistrationRequestDto;
@@ -60,7 +61,7 @@ public class AuthenticationControllerTest {
                 List.of(1L)
         );
         loginDto = new UserLoginRequestDto("test@example.com", "Password#1");
-        loginResponseDto = new UserLoginResponseDto("test-jwt-token");
+        loginResponseDto = new UserLoginResponseDto("test-jwt-token", "test-refresh-token");
     }
 
     @Test
@@ -101,4 +102,23 @@ public class AuthenticationControllerTest {
         Mockito.verify(authenticationService).authenticate(any(UserLoginRequestDto.class));
     }
 
+    @Test
+    @DisplayName("POST /refresh - valid refresh token returns a new token pair")
+    void refresh_ValidRefreshToken_ReturnsNewTokens() throws Exception {
+        // When
+        when(authenticationService.refresh(any(RefreshTokenRequestDto.class)))
+                .thenReturn(loginResponseDto);
+
+        // Then
+        mockMvc.perform(MockMvcRequestBuilders.post("/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new RefreshTokenRequestDto("test-refresh-token"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.token").value("test-jwt-token"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.refreshToken")
+                        .value("test-refresh-token"));
+
+        Mockito.verify(authenticationService).refresh(any(RefreshTokenRequestDto.class));
+    }
 }
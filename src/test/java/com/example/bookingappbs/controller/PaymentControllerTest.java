@@ -1,5 +1,7 @@
 package com.example.bookingappbs.controller;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
@@ -14,8 +16,11 @@ import com.example.bookingappbs.dto.payment.PaymentDto;
 import com.example.bookingappbs.model.Payment.Status;
 import com.example.bookingappbs.model.Role;
 import com.example.bookingappbs.model.User;
+import com.example.bookingappbs.repository.StripeWebhookEventRepository;
 import com.example.bookingappbs.service.payment.PaymentProcessingService;
+import com.stripe.net.Webhook;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
@@ -48,6 +54,8 @@ public class PaymentControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private WebApplicationContext context;
+    @Autowired
+    private StripeWebhookEventRepository stripeWebhookEventRepository;
 
     private User testUser;
     private User adminUser;
@@ -96,6 +104,17 @@ public class PaymentControllerTest {
         return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
     }
 
+    private String fixture(String name) throws Exception {
+        return new String(new ClassPathResource("stripe/" + name).getInputStream()
+                .readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private String sign(String payload, String secret) throws Exception {
+        long timestamp = Webhook.Util.getTimeNow();
+        return "t=" + timestamp + ",v1="
+                + Webhook.Util.computeHmacSha256(secret, timestamp + "." + payload);
+    }
+
     @Test
     @DisplayName("POST /payments - Induce payment session")
     void createPaymentSession_ValidBookingId_ReturnsPaymentDto() throws Exception {
@@ -243,4 +262,38 @@ public class PaymentControllerTest {
                 .renewPaymentSession(eq(paymentId), eq(testUser), any(Model.class));
     }
 
+    @Test
+    @DisplayName("POST /payments/webhook - Signed Stripe event is stored without authentication")
+    void handleWebhook_ValidSignature_StoresEvent() throws Exception {
+        // Given
+        String payload = fixture("checkout-session-completed.json");
+
+        // When
+        mockMvc.perform(post("/payments/webhook")
+                        .header("Stripe-Signature",
+                                sign(payload, "whsec_only_for_testing_environment"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk());
+
+        // Then
+        assertTrue(stripeWebhookEventRepository.existsByEventId("evt_test_checkout_completed"));
+    }
+
+    @Test
+    @DisplayName("POST /payments/webhook - Event signed with a foreign secret is rejected")
+    void handleWebhook_InvalidSignature_ReturnsBadRequest() throws Exception {
+        // Given
+        String payload = fixture("checkout-session-expired.json");
+
+        // When
+        mockMvc.perform(post("/payments/webhook")
+                        .header("Stripe-Signature", sign(payload, "whsec_forged"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        assertFalse(stripeWebhookEventRepository.existsByEventId("evt_test_checkout_expired"));
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.bookingappbs.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bookingappbs.dto.booking.ExpiringBooking;
+import com.example.bookingappbs.model.Booking;
+import com.example.bookingappbs.model.Booking.Status;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookingRepositoryTest {
+    private static final List<Status> EXPIRABLE_STATUSES = List.of(Status.PENDING,
+            Status.CONFIRMED);
+    private static final LocalDate CUTOFF = LocalDate.parse("2027-04-16");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        tearDown();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/accommodations/add-three-accommodations.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/users/add-test-user.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/bookings/add-three-bookings.sql"));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/bookings/drop-all-bookings.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/users/drop-all-test-users.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/accommodations/drop-all-accommodations.sql"));
+        }
+    }
+
+    @Test
+    @DisplayName("Verify findExpiring() pages bookings checked out by the cutoff after the cursor")
+    public void findExpiring_CheckedOutBeforeCutoff_ReturnsChunkAfterCursor() {
+        // When
+        List<ExpiringBooking> firstChunk = inTransaction(() -> bookingRepository.findExpiring(
+                EXPIRABLE_STATUSES, CUTOFF, 0L, PageRequest.of(0, 1)));
+        List<ExpiringBooking> secondChunk = inTransaction(() -> bookingRepository.findExpiring(
+                EXPIRABLE_STATUSES, CUTOFF, firstChunk.get(0).id(), PageRequest.of(0, 1)));
+
+        // Then
+        assertThat(firstChunk).extracting(ExpiringBooking::id).containsExactly(1L);
+        assertThat(firstChunk.get(0).status()).isEqualTo(Status.PENDING);
+        assertThat(secondChunk).extracting(ExpiringBooking::id).containsExactly(2L);
+        assertThat(secondChunk.get(0).status()).isEqualTo(Status.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("Verify expire() updates only bookings still in an expirable status")
+    public void expire_ConcurrentlyCanceledBooking_SkipsIt() {
+        // Given
+        inTransaction(() -> bookingRepository.findById(2L)
+                .map(booking -> booking.setStatus(Status.CANCELED))
+                .orElseThrow());
+
+        // When
+        int expired = inTransaction(() -> bookingRepository.expire(List.of(1L, 2L),
+                EXPIRABLE_STATUSES, Status.EXPIRED));
+
+        // Then
+        assertThat(expired).isEqualTo(1);
+        assertThat(bookingRepository.findAllById(List.of(1L, 2L, 3L)))
+                .extracting(Booking::getStatus)
+                .containsExactlyInAnyOrder(Status.EXPIRED, Status.CANCELED, Status.PENDING);
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.bookingappbs.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.dto.user.RefreshTokenRequestDto;
+import com.example.bookingappbs.dto.user.UserLoginResponseDto;
+import com.example.bookingappbs.exception.InvalidTokenException;
+import com.example.bookingappbs.model.RefreshToken;
+import com.example.bookingappbs.model.Role;
+import com.example.bookingappbs.model.User;
+import com.example.bookingappbs.repository.RefreshTokenRepository;
+import com.example.bookingappbs.repository.UserRepository;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthenticationServiceTest {
+    private static final String TOKEN_ID = "2f1c4a6e-9a0b-4c43-8d1e-5f6a7b8c9d0e";
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private PrincipalCache principalCache;
+
+    private JwtUtil jwtUtil;
+    private AuthenticationService authenticationService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil("thisissecretphrasefortestingenvironment", 0);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_000_000L);
+        ReflectionTestUtils.setField(jwtUtil, "stateless", false);
+        ReflectionTestUtils.setField(jwtUtil, "statelessExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        authenticationService = new AuthenticationService(authenticationManager, jwtUtil,
+                userRepository, refreshTokenRepository, principalCache);
+        user = new User()
+                .setId(7L)
+                .setEmail("test@example.com")
+                .setTokenVersion(3)
+                .setRoles(Set.of(new Role("CUSTOMER")));
+    }
+
+    @Test
+    @DisplayName("Verify a refresh token is consumed and replaced by a new one")
+    public void refresh_ValidToken_RotatesRefreshToken() {
+        // Given
+        when(userRepository.findUserByEmailWithRoles("test@example.com"))
+                .thenReturn(Optional.of(user));
+        when(refreshTokenRepository.consume(eq(TOKEN_ID), any())).thenReturn(1);
+
+        // When
+        UserLoginResponseDto tokens = authenticationService.refresh(
+                new RefreshTokenRequestDto(jwtUtil.generateRefreshToken(user, TOKEN_ID)));
+
+        // Then
+        ArgumentCaptor<RefreshToken> issued = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(1)).save(issued.capture());
+        assertThat(issued.getValue().getId()).isNotEqualTo(TOKEN_ID);
+        assertThat(issued.getValue().getUserId()).isEqualTo(7L);
+        assertThat(jwtUtil.verify(tokens.refreshToken()).getId())
+                .isEqualTo(issued.getValue().getId());
+    }
+
+    @Test
+    @DisplayName("Verify a reused refresh token revokes every session of its owner")
+    public void refresh_ReusedToken_RevokesSessions() {
+        // Given
+        String refreshToken = jwtUtil.generateRefreshToken(user, TOKEN_ID);
+        when(userRepository.findUserByEmailWithRoles("test@example.com"))
+                .thenReturn(Optional.of(user));
+        when(refreshTokenRepository.consume(eq(TOKEN_ID), any())).thenReturn(0);
+
+        // When & Then
+        assertThrows(InvalidTokenException.class, () -> authenticationService
+                .refresh(new RefreshTokenRequestDto(refreshToken)));
+        assertThat(user.getTokenVersion()).isEqualTo(4);
+        verify(userRepository, times(1)).save(user);
+        verify(principalCache, times(1)).evict("test@example.com");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Verify a refresh token issued before a token version bump is rejected")
+    public void refresh_RevokedTokenVersion_ThrowsException() {
+        // Given
+        String refreshToken = jwtUtil.generateRefreshToken(user, TOKEN_ID);
+        user.setTokenVersion(4);
+        when(userRepository.findUserByEmailWithRoles("test@example.com"))
+                .thenReturn(Optional.of(user));
+
+        // When & Then
+        assertThrows(InvalidTokenException.class, () -> authenticationService
+                .refresh(new RefreshTokenRequestDto(refreshToken)));
+        verify(refreshTokenRepository, never()).consume(any(), any());
+    }
+
+    @Test
+    @DisplayName("Verify an access token cannot be used to refresh")
+    public void refresh_AccessToken_ThrowsException() {
+        // Given
+        String accessToken = jwtUtil.generateAccessToken(user);
+
+        // When & Then
+        assertThrows(InvalidTokenException.class, () -> authenticationService
+                .refresh(new RefreshTokenRequestDto(accessToken)));
+        verify(userRepository, never()).findUserByEmailWithRoles(any());
+    }
+
+    @Test
+    @DisplayName("Verify a refresh token of an unknown or soft-deleted user is rejected")
+    public void refresh_UnknownUser_ThrowsException() {
+        // Given
+        String refreshToken = jwtUtil.generateRefreshToken(user, TOKEN_ID);
+        when(userRepository.findUserByEmailWithRoles("test@example.com"))
+                .thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(InvalidTokenException.class, () -> authenticationService
+                .refresh(new RefreshTokenRequestDto(refreshToken)));
+        verify(refreshTokenRepository, never()).consume(any(), any());
+    }
+}
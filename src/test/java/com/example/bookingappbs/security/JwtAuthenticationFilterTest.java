@@ -0,0 +1,135 @@
+package com.example.bookingappbs.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.model.Role;
+import com.example.bookingappbs.model.User;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil("thisissecretphrasefortestingenvironment", 0);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_000_000L);
+        ReflectionTestUtils.setField(jwtUtil, "statelessExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        filter = new JwtAuthenticationFilter(userDetailsService, jwtUtil);
+        user = new User()
+                .setId(7L)
+                .setEmail("test@example.com")
+                .setTokenVersion(3)
+                .setRoles(Set.of(new Role("ADMIN")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Verify stateless mode builds the principal from token claims alone")
+    public void doFilter_StatelessAccessToken_AuthenticatesFromClaims() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jwtUtil, "stateless", true);
+
+        // When
+        filter.doFilter(request(jwtUtil.generateAccessToken(user)),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User principal = (User) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getEmail()).isEqualTo("test@example.com");
+        assertThat(authentication.getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("ROLE_ADMIN");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Verify stateful mode loads the principal through the user details service")
+    public void doFilter_StatefulAccessToken_LoadsUser() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jwtUtil, "stateless", false);
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(user);
+
+        // When
+        filter.doFilter(request(jwtUtil.generateAccessToken(user)),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .isSameAs(user);
+        verify(userDetailsService, times(1)).loadUserByUsername("test@example.com");
+    }
+
+    @Test
+    @DisplayName("Verify stateful mode rejects a token issued before the user's token version")
+    public void doFilter_StatefulTokenVersionBumped_Returns401() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jwtUtil, "stateless", false);
+        String token = jwtUtil.generateAccessToken(user);
+        user.setTokenVersion(4);
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(user);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request(token), response, chain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Verify a refresh token does not authenticate a request")
+    public void doFilter_RefreshToken_LeavesRequestAnonymous() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(jwtUtil, "stateless", true);
+
+        // When
+        filter.doFilter(request(jwtUtil.generateRefreshToken(user, "token-id")),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, JwtAuthenticationFilter.TOKEN_HEADER + token);
+        return request;
+    }
+}
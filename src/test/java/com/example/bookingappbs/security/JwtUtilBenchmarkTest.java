@@ -0,0 +1,90 @@
+package com.example.bookingappbs.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bookingappbs.model.Role;
+import com.example.bookingappbs.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import javax.crypto.SecretKey;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@EnabledIfSystemProperty(named = "jwt.benchmark", matches = "true")
+public class JwtUtilBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger(JwtUtilBenchmarkTest.class);
+    private static final String SECRET = "thisissecretphrasefortestingenvironment";
+    private static final int WARMUP_OPERATIONS = 20_000;
+    private static final int OPERATIONS = 100_000;
+
+    private SecretKey secretKey;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        JwtUtil jwtUtil = jwtUtil(0);
+        token = jwtUtil.generateAccessToken(new User()
+                .setId(1L)
+                .setEmail("test@example.com")
+                .setRoles(Set.of(new Role("CUSTOMER"))));
+    }
+
+    @Test
+    @DisplayName("Compare double-parse, single-parse and cached JWT verification throughput")
+    public void verify_ParserReuseAndCache_ReportTokensPerSecond() {
+        // Given
+        JwtUtil uncached = jwtUtil(0);
+        JwtUtil cached = jwtUtil(1_000);
+
+        // When
+        long doubleParseNanos = measure(this::verifyTwiceWithFreshParsers);
+        long singleParseNanos = measure(() -> uncached.verify(token));
+        long cachedNanos = measure(() -> cached.verify(token));
+
+        // Then
+        logger.info("Fresh parser, two verifications: {} tokens/s", tokensPerSecond(
+                doubleParseNanos));
+        logger.info("Shared parser, one verification: {} tokens/s", tokensPerSecond(
+                singleParseNanos));
+        logger.info("Verified token cache: {} tokens/s", tokensPerSecond(cachedNanos));
+        assertThat(singleParseNanos).isLessThan(doubleParseNanos);
+        assertThat(cachedNanos).isLessThan(singleParseNanos);
+    }
+
+    private void verifyTwiceWithFreshParsers() {
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload()
+                .getSubject();
+    }
+
+    private JwtUtil jwtUtil(long verifiedCacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, verifiedCacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_000_000L);
+        ReflectionTestUtils.setField(jwtUtil, "statelessExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        return jwtUtil;
+    }
+
+    private long measure(Runnable verification) {
+        for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+            verification.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            verification.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long tokensPerSecond(long nanos) {
+        return OPERATIONS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bookingappbs.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bookingappbs.model.Role;
+import com.example.bookingappbs.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JwtUtilTest {
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil("thisissecretphrasefortestingenvironment", 100);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_000_000L);
+        ReflectionTestUtils.setField(jwtUtil, "stateless", true);
+        ReflectionTestUtils.setField(jwtUtil, "statelessExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        user = new User()
+                .setId(7L)
+                .setEmail("test@example.com")
+                .setTokenVersion(3)
+                .setRoles(Set.of(new Role("ADMIN")));
+    }
+
+    @Test
+    @DisplayName("Verify an access token carries everything needed to rebuild the principal")
+    public void toPrincipal_AccessToken_RestoresIdEmailAndRoles() {
+        // Given
+        Claims claims = jwtUtil.verify(jwtUtil.generateAccessToken(user));
+
+        // When
+        User principal = jwtUtil.toPrincipal(claims);
+
+        // Then
+        assertThat(jwtUtil.hasPrincipalClaims(claims)).isTrue();
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getEmail()).isEqualTo("test@example.com");
+        assertThat(principal.getTokenVersion()).isEqualTo(3);
+        assertThat(principal.getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("Verify a refresh token cannot be used as an access token")
+    public void hasPrincipalClaims_RefreshToken_ReturnsFalse() {
+        // When
+        Claims claims = jwtUtil.verify(jwtUtil.generateRefreshToken(user, "token-id"));
+
+        // Then
+        assertThat(jwtUtil.isRefreshToken(claims)).isTrue();
+        assertThat(jwtUtil.hasPrincipalClaims(claims)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Verify a tampered token is rejected even when the original is cached")
+    public void verify_TamperedToken_ThrowsJwtException() {
+        // Given
+        String token = jwtUtil.generateAccessToken(user);
+        jwtUtil.verify(token);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When
+        Claims claims = jwtUtil.verify(token);
+
+        // Then
+        assertThat(claims.getSubject()).isEqualTo("test@example.com");
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+}
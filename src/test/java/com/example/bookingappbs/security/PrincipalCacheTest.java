@@ -0,0 +1,63 @@
+package com.example.bookingappbs.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.example.bookingappbs.model.User;
+import com.example.bookingappbs.service.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class PrincipalCacheTest {
+    private static final String EMAIL = "test@example.com";
+
+    @Mock
+    private RedisService redisService;
+
+    private PrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(100, Duration.ofMinutes(5), redisService,
+                new SimpleMeterRegistry());
+        user = new User().setId(7L).setEmail(EMAIL);
+        principalCache.get(EMAIL, email -> user);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify the local principal is evicted only once the transaction commits")
+    public void evict_ActiveTransaction_InvalidatesAfterCommit() {
+        // Given
+        User reloaded = new User().setId(7L).setEmail(EMAIL);
+
+        // When
+        principalCache.evict(EMAIL);
+
+        // Then
+        assertThat(principalCache.get(EMAIL, email -> reloaded)).isSameAs(user);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertThat(principalCache.get(EMAIL, email -> reloaded)).isSameAs(reloaded);
+        verify(redisService, times(1)).publish(PrincipalCache.EVICTION_CHANNEL, EMAIL);
+    }
+}
@@ -3,7 +3,10 @@ package com.example.bookingappbs.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -22,8 +25,10 @@ import com.example.bookingappbs.model.Address;
 import com.example.bookingappbs.repository.AccommodationRepository;
 import com.example.bookingappbs.service.accommodation.AccommodationNotificationBuilder;
 import com.example.bookingappbs.service.accommodation.AccommodationServiceImpl;
+import com.example.bookingappbs.service.availability.AvailabilityEngine;
 import com.example.bookingappbs.service.notification.NotificationService;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,9 +37,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 public class AccommodationServiceTest {
@@ -57,6 +65,12 @@ public class AccommodationServiceTest {
     @Mock
     private AccommodationNotificationBuilder notificationBuilder;
 
+    @Mock
+    private AvailabilityEngine availabilityEngine;
+
+    @Spy
+    private RequestScopedCache requestScopedCache = new RequestScopedCache();
+
     private Address address;
     private AddressDto addressDto;
     private CreateAddressRequestDto createAddressRequestDto;
@@ -155,10 +169,10 @@ public class AccommodationServiceTest {
         when(accommodationMapper.toModel(requestDto)).thenReturn(accommodationToSave);
         when(accommodationRepository.save(accommodationToSave)).thenReturn(savedAccommodation);
         when(accommodationMapper.toDto(savedAccommodation)).thenReturn(expectedDto);
-        doNothing().when(redisService).deletePattern("accommodations::all::*");
+        doNothing().when(redisService).incrementGeneration("accommodations::all");
         when(notificationBuilder.buildAccommodationNotificationMessage(
                 "New accommodation created", savedAccommodation)).thenReturn(notificationMessage);
-        doNothing().when(notificationService).sendNotification(anyString());
+        doNothing().when(notificationService).sendNotification(anyString(), anyString());
 
         // When
         AccommodationDto actualDto = accommodationService.save(requestDto);
@@ -168,10 +182,11 @@ public class AccommodationServiceTest {
         verify(accommodationMapper, times(1)).toModel(requestDto);
         verify(accommodationRepository, times(1)).save(accommodationToSave);
         verify(accommodationMapper, times(1)).toDto(savedAccommodation);
-        verify(redisService, times(1)).deletePattern("accommodations::all::*");
+        verify(redisService, times(1)).incrementGeneration("accommodations::all");
         verify(notificationBuilder, times(1)).buildAccommodationNotificationMessage(
                 "New accommodation created", savedAccommodation);
-        verify(notificationService, times(1)).sendNotification(anyString());
+        verify(redisService, times(1)).save("accommodations::id::1", expectedDto);
+        verify(notificationService, times(1)).sendNotification(anyString(), anyString());
         verifyNoMoreInteractions(accommodationRepository, accommodationMapper,
                 redisService, notificationService, notificationBuilder);
     }
@@ -181,7 +196,8 @@ public class AccommodationServiceTest {
     public void findAll_ExistingCache_ReturnCachedAccommodations() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        String key = "accommodations::all::page:0::size:10";
+        String key = "accommodations::all::gen:3::page:0::size:10";
+        when(redisService.currentGeneration("accommodations::all")).thenReturn(3L);
         List<AccommodationDto> cachedAccommodations = List.of(
                 new AccommodationDto(
                         1L,
@@ -192,17 +208,102 @@ public class AccommodationServiceTest {
                         BigDecimal.TEN,
                         1)
         );
-        when(redisService.findAll(key, AccommodationDto.class)).thenReturn(cachedAccommodations);
+        when(redisService.findPageOrLoad(
+                eq(key), eq(pageable), eq(AccommodationDto.class), any()))
+                .thenReturn(cachedAccommodations);
 
         // When
         List<AccommodationDto> result = accommodationService.findAll(pageable);
 
         // Then
         assertThat(result).isEqualTo(cachedAccommodations);
-        verify(redisService, times(1)).findAll(key, AccommodationDto.class);
+        verify(redisService, times(1)).currentGeneration("accommodations::all");
+        verify(redisService, times(1))
+                .findPageOrLoad(eq(key), eq(pageable), eq(AccommodationDto.class), any());
         verifyNoMoreInteractions(accommodationRepository, accommodationMapper, redisService);
     }
 
+    @Test
+    @DisplayName("Verify findAvailable() returns only accommodations with free units")
+    public void findAvailable_ValidDates_ReturnAvailableAccommodations() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDate checkInDate = LocalDate.now().plusDays(1);
+        LocalDate checkOutDate = checkInDate.plusDays(2);
+        Accommodation bookedAccommodation = new Accommodation().setId(2L).setAvailability(1);
+        List<Accommodation> candidates = List.of(accommodation, bookedAccommodation);
+        when(accommodationRepository.findByTypeAndCityOptional(Type.APARTMENT, "Odesa",
+                PageRequest.of(0, 200, Sort.by("id")))).thenReturn(new SliceImpl<>(candidates));
+        when(availabilityEngine.filterAvailable(candidates, checkInDate, checkOutDate))
+                .thenReturn(List.of(accommodation));
+        when(accommodationMapper.toDto(accommodation)).thenReturn(accommodationDto);
+
+        // When
+        List<AccommodationDto> result = accommodationService
+                .findAvailable(checkInDate, checkOutDate, Type.APARTMENT, "Odesa", pageable);
+
+        // Then
+        assertThat(result).containsExactly(accommodationDto);
+        verify(availabilityEngine, times(1))
+                .filterAvailable(candidates, checkInDate, checkOutDate);
+        verifyNoMoreInteractions(accommodationMapper, redisService);
+    }
+
+    @Test
+    @DisplayName("Verify findAvailable() scans further batches only until the page is filled")
+    public void findAvailable_SparseAvailability_ScansNextBatch() {
+        // Given
+        Pageable pageable = PageRequest.of(1, 1);
+        LocalDate checkInDate = LocalDate.now().plusDays(1);
+        LocalDate checkOutDate = checkInDate.plusDays(2);
+        Accommodation secondAccommodation = new Accommodation().setId(2L).setAvailability(1);
+        Pageable firstBatch = PageRequest.of(0, 200, Sort.by("id"));
+        when(accommodationRepository.findByTypeAndCityOptional(null, null, firstBatch))
+                .thenReturn(new SliceImpl<>(List.of(accommodation), firstBatch, true));
+        when(accommodationRepository.findByTypeAndCityOptional(null, null, firstBatch.next()))
+                .thenReturn(new SliceImpl<>(List.of(secondAccommodation), firstBatch.next(),
+                        true));
+        when(availabilityEngine.filterAvailable(any(), eq(checkInDate), eq(checkOutDate)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        AccommodationDto secondDto = new AccommodationDto(2L, null, null, null, null, null, 1);
+        when(accommodationMapper.toDto(secondAccommodation)).thenReturn(secondDto);
+
+        // When
+        List<AccommodationDto> result = accommodationService
+                .findAvailable(checkInDate, checkOutDate, null, null, pageable);
+
+        // Then
+        assertThat(result).containsExactly(secondDto);
+        verify(accommodationRepository, times(2)).findByTypeAndCityOptional(any(), any(), any());
+        verifyNoMoreInteractions(accommodationRepository);
+    }
+
+    @Test
+    @DisplayName("Verify findAvailable() rejects a check-in date in the past")
+    public void findAvailable_CheckInInPast_ThrowsException() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDate checkInDate = LocalDate.now().minusDays(1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> accommodationService
+                .findAvailable(checkInDate, checkInDate.plusDays(2), null, null, pageable));
+        verifyNoMoreInteractions(accommodationRepository, availabilityEngine);
+    }
+
+    @Test
+    @DisplayName("Verify findAvailable() rejects check-out not after check-in")
+    public void findAvailable_CheckOutBeforeCheckIn_ThrowsException() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDate checkInDate = LocalDate.now().plusDays(3);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> accommodationService
+                .findAvailable(checkInDate, checkInDate, null, null, pageable));
+        verifyNoMoreInteractions(accommodationRepository, availabilityEngine);
+    }
+
     @Test
     void findAccommodationById_existingId_returnsAccommodationDto() {
         // When
@@ -261,7 +362,7 @@ public class AccommodationServiceTest {
         when(accommodationRepository.save(existingAccommodation))
                 .thenReturn(savedAccommodation);
         when(accommodationMapper.toDto(savedAccommodation)).thenReturn(expectedDto);
-        doNothing().when(redisService).deletePattern("accommodations::all::*");
+        doNothing().when(redisService).incrementGeneration("accommodations::all");
 
         // When
         AccommodationDto actualDto = accommodationService
@@ -274,7 +375,9 @@ public class AccommodationServiceTest {
         verify(accommodationMapper, times(1))
                 .updateAccommodationFromDto(requestDto, existingAccommodation);
         verify(accommodationMapper, times(1)).toDto(savedAccommodation);
-        verify(redisService, times(1)).deletePattern("accommodations::all::*");
+        verify(redisService, times(1)).incrementGeneration("accommodations::all");
+        verify(redisService, times(1))
+                .save("accommodations::id::" + accommodationId, expectedDto);
         verifyNoMoreInteractions(accommodationRepository, accommodationMapper, redisService);
         verify(accommodationMapper, times(1))
                 .updateAccommodationFromDto(requestDto, existingAccommodation);
@@ -299,21 +402,22 @@ public class AccommodationServiceTest {
         when(accommodationRepository.getAccommodationById(accommodationId))
                 .thenReturn(accommodationToDelete);
         doNothing().when(accommodationRepository).deleteById(accommodationId);
-        doNothing().when(redisService).deletePattern("accommodations::all::*");
+        doNothing().when(redisService).incrementGeneration("accommodations::all");
         when(notificationBuilder.buildAccommodationNotificationMessage(
                 "Accommodation deleted", accommodationToDelete)).thenReturn(notificationMessage);
-        doNothing().when(notificationService).sendNotification(anyString());
+        doNothing().when(notificationService).sendNotification(anyString(), anyString());
 
         // When
         accommodationService.deleteAccommodationById(accommodationId);
 
         // Then
-        verify(redisService, times(1)).deletePattern("accommodations::all::*");
+        verify(redisService, times(1)).incrementGeneration("accommodations::all");
         verify(accommodationRepository, times(1)).getAccommodationById(accommodationId);
         verify(accommodationRepository, times(1)).deleteById(accommodationId);
+        verify(redisService, times(1)).delete("accommodations::id::" + accommodationId);
         verify(notificationBuilder, times(1)).buildAccommodationNotificationMessage(
                 "Accommodation deleted", accommodationToDelete);
-        verify(notificationService, times(1)).sendNotification(anyString());
+        verify(notificationService, times(1)).sendNotification(anyString(), anyString());
         verifyNoMoreInteractions(accommodationRepository, redisService, notificationService,
                 notificationBuilder);
     }
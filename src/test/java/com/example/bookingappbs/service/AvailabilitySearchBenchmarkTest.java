@@ -0,0 +1,178 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bookingappbs.dto.accommodation.AccommodationDto;
+import com.example.bookingappbs.model.Accommodation;
+import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.repository.AccommodationRepository;
+import com.example.bookingappbs.repository.BookingRepository;
+import com.example.bookingappbs.service.accommodation.AccommodationService;
+import com.example.bookingappbs.service.availability.InMemoryAvailabilityEngine;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "availability.benchmark", matches = "true")
+public class AvailabilitySearchBenchmarkTest {
+    private static final Logger logger =
+            LogManager.getLogger(AvailabilitySearchBenchmarkTest.class);
+    private static final List<Status> EXCLUDED_STATUSES = List.of(Status.CANCELED, Status.EXPIRED);
+    private static final List<String> CITIES = List.of("Odesa", "Kyiv", "Lviv", "Dnipro");
+    private static final int ACCOMMODATIONS = 500;
+    private static final int BOOKINGS_PER_ACCOMMODATION = 100;
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private AccommodationService accommodationService;
+    @Autowired
+    private AccommodationRepository accommodationRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private InMemoryAvailabilityEngine inMemoryAvailabilityEngine;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        tearDown();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/users/add-test-user.sql"));
+        }
+        Long userId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = 'test@example.com'", Long.class);
+
+        List<Object[]> addresses = new ArrayList<>();
+        for (int i = 0; i < ACCOMMODATIONS; i++) {
+            addresses.add(new Object[]{CITIES.get(i % CITIES.size()), "Street " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO addresses (country, city, street, house, "
+                + "is_deleted) VALUES ('Ukraine', ?, ?, '1', FALSE)", addresses);
+        List<Long> addressIds = jdbcTemplate.queryForList(
+                "SELECT id FROM addresses ORDER BY id", Long.class);
+
+        List<Object[]> accommodations = new ArrayList<>();
+        for (int i = 0; i < ACCOMMODATIONS; i++) {
+            accommodations.add(new Object[]{addressIds.get(i), i % 5 + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO accommodations (type, address_id, size, "
+                + "daily_rate, availability, is_deleted) "
+                + "VALUES ('APARTMENT', ?, '1 bedroom', 55.00, ?, FALSE)", accommodations);
+        List<Long> accommodationIds = jdbcTemplate.queryForList(
+                "SELECT id FROM accommodations ORDER BY id", Long.class);
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < ACCOMMODATIONS; i++) {
+            for (int j = 0; j < BOOKINGS_PER_ACCOMMODATION; j++) {
+                LocalDate checkIn = today.plusDays(1 + (2L * j + i) % 300);
+                bookings.add(new Object[]{checkIn, checkIn.plusDays(3),
+                        accommodationIds.get(i), userId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (check_in_date, check_out_date, "
+                + "accommodation_id, user_id, status, is_deleted) "
+                + "VALUES (?, ?, ?, ?, 'CONFIRMED', FALSE)", bookings);
+
+        inMemoryAvailabilityEngine.warmUp();
+        checkInDate = today.plusDays(30);
+        checkOutDate = checkInDate.plusDays(3);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/bookings/drop-all-bookings.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/accommodations/drop-all-accommodations.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/users/drop-all-test-users.sql"));
+        }
+    }
+
+    @Test
+    @DisplayName("Compare the indexed availability search with one overlap query per accommodation")
+    public void findAvailable_RealisticBookingVolume_OutperformsNaiveQuery() {
+        // Given
+        Supplier<List<Long>> indexed = () -> accommodationService
+                .findAvailable(checkInDate, checkOutDate, null, null,
+                        PageRequest.of(0, ACCOMMODATIONS))
+                .stream()
+                .map(AccommodationDto::id)
+                .toList();
+        Supplier<List<Long>> naive = this::findAvailableNaively;
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            indexed.get();
+            naive.get();
+        }
+
+        // When
+        long indexedNanos = measure(indexed);
+        long naiveNanos = measure(naive);
+
+        // Then
+        logger.info("Indexed search: {} ops/s over {} accommodations and {} bookings",
+                opsPerSecond(ROUNDS, indexedNanos), ACCOMMODATIONS,
+                ACCOMMODATIONS * BOOKINGS_PER_ACCOMMODATION);
+        logger.info("Naive search: {} ops/s over {} accommodations and {} bookings",
+                opsPerSecond(ROUNDS, naiveNanos), ACCOMMODATIONS,
+                ACCOMMODATIONS * BOOKINGS_PER_ACCOMMODATION);
+        // The overlap count also rejects stays whose bookings never share a night, so the
+        // per-night index may find more accommodations but must not lose any
+        assertThat(indexed.get()).isNotEmpty().containsAll(naive.get());
+        assertThat(indexedNanos).isLessThan(naiveNanos);
+    }
+
+    private List<Long> findAvailableNaively() {
+        return accommodationRepository.findAll().stream()
+                .filter(accommodation -> accommodation.getAvailability() > 0)
+                .filter(accommodation -> bookingRepository.countOverLappingBookings(
+                        accommodation, checkInDate, checkOutDate, EXCLUDED_STATUSES)
+                        < accommodation.getAvailability())
+                .map(Accommodation::getId)
+                .sorted()
+                .toList();
+    }
+
+    private long measure(Supplier<List<Long>> search) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            search.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long opsPerSecond(int operations, long nanos) {
+        return operations * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bookingappbs.dto.accommodation.AccommodationDto;
+import com.example.bookingappbs.dto.address.AddressDto;
+import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.model.Accommodation.Type;
+import com.example.bookingappbs.service.codec.BinaryCacheCodec;
+import com.example.bookingappbs.service.codec.CacheCodec;
+import com.example.bookingappbs.service.codec.JsonCacheCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+@EnabledIfSystemProperty(named = "codec.benchmark", matches = "true")
+public class BinaryCacheCodecBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger(BinaryCacheCodecBenchmarkTest.class);
+    private static final int ENTRIES = 20;
+    private static final int ITERATIONS = 20_000;
+
+    private final JsonCacheCodec jsonCodec = new JsonCacheCodec(
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final BinaryCacheCodec binaryCodec = new BinaryCacheCodec();
+
+    @Test
+    @DisplayName("Compare bytes per entry and decode throughput of the JSON and binary codecs")
+    public void encode_JsonVersusBinary_ReportBytesPerEntryAndOpsPerSecond() throws IOException {
+        // Given
+        List<BookingDto> bookings = new ArrayList<>();
+        List<AccommodationDto> accommodations = new ArrayList<>();
+        for (long i = 0; i < ENTRIES; i++) {
+            bookings.add(new BookingDto(i, LocalDate.now(), LocalDate.now().plusDays(3),
+                    i + 1, i + 2, "CONFIRMED"));
+            accommodations.add(new AccommodationDto(i, Type.APARTMENT,
+                    new AddressDto(i, "Ukraine", "Kyiv", "Khreshchatyk", "1", 12),
+                    "Two bedrooms", List.of("WiFi", "Parking", "Kitchen"),
+                    BigDecimal.valueOf(12_550, 2), 4));
+        }
+
+        // When
+        int jsonBookingBytes = jsonCodec.encode(bookings).length;
+        int binaryBookingBytes = binaryCodec.encode(bookings).length;
+        int jsonAccommodationBytes = jsonCodec.encode(accommodations).length;
+        int binaryAccommodationBytes = binaryCodec.encode(accommodations).length;
+        long jsonNanos = measure(jsonCodec, accommodations);
+        long binaryNanos = measure(binaryCodec, accommodations);
+
+        // Then
+        logger.info("BookingDto bytes per entry: JSON {}, binary {}",
+                jsonBookingBytes / ENTRIES, binaryBookingBytes / ENTRIES);
+        logger.info("AccommodationDto bytes per entry: JSON {}, binary {}",
+                jsonAccommodationBytes / ENTRIES, binaryAccommodationBytes / ENTRIES);
+        logger.info("AccommodationDto list round trip: JSON {} ops/s, binary {} ops/s",
+                opsPerSecond(jsonNanos), opsPerSecond(binaryNanos));
+        assertThat(binaryBookingBytes).isLessThan(jsonBookingBytes);
+        assertThat(binaryAccommodationBytes).isLessThan(jsonAccommodationBytes);
+    }
+
+    private long measure(CacheCodec codec, List<AccommodationDto> values) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            codec.decodeList(codec.encode(values), 0, AccommodationDto.class);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long opsPerSecond(long nanos) {
+        return ITERATIONS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
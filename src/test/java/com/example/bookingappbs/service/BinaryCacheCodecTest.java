@@ -0,0 +1,91 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.bookingappbs.dto.accommodation.AccommodationDto;
+import com.example.bookingappbs.dto.address.AddressDto;
+import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.model.Accommodation.Type;
+import com.example.bookingappbs.service.codec.BinaryCacheCodec;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BinaryCacheCodecTest {
+    private final BinaryCacheCodec codec = new BinaryCacheCodec();
+
+    @Test
+    @DisplayName("Verify booking pages survive an encode/decode round trip")
+    public void decodeList_EncodedBookingDtos_ReturnEqualList() throws IOException {
+        // Given
+        List<BookingDto> bookings = List.of(
+                new BookingDto(1L, LocalDate.of(2027, 1, 15), LocalDate.of(2027, 1, 18),
+                        2L, 3L, "PENDING"),
+                new BookingDto(null, null, null, null, null, null)
+        );
+
+        // When
+        byte[] payload = codec.encode(bookings);
+        List<BookingDto> result = codec.decodeList(payload, 0, BookingDto.class);
+
+        // Then
+        assertThat(result).isEqualTo(bookings);
+    }
+
+    @Test
+    @DisplayName("Verify nested records, enums, decimals and lists are encoded")
+    public void decode_EncodedAccommodationDto_ReturnEqualRecord() throws IOException {
+        // Given
+        AccommodationDto accommodation = new AccommodationDto(
+                1L,
+                Type.CONDO,
+                new AddressDto(2L, "Ukraine", "Lviv", "Rynok Square", "4", null),
+                "2 bedrooms",
+                List.of("Wifi", "Parking"),
+                new BigDecimal("80.50"),
+                2
+        );
+
+        // When
+        byte[] payload = codec.encode(accommodation);
+        AccommodationDto result = codec.decode(payload, 0, AccommodationDto.class);
+
+        // Then
+        assertThat(result).isEqualTo(accommodation);
+    }
+
+    @Test
+    @DisplayName("Verify entries written for another schema are ignored")
+    public void decodeList_DifferentSchema_ReturnNull() throws IOException {
+        // Given
+        byte[] payload = codec.encode(List.of(
+                new AddressDto(1L, "Ukraine", "Odesa", "Deribasovskaya", "1", 1)));
+
+        // When
+        List<BookingDto> result = codec.decodeList(payload, 0, BookingDto.class);
+
+        // Then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    @DisplayName("Verify a renamed enum constant is reported as an unreadable entry")
+    public void decode_UnknownEnumConstant_ThrowsIoException() throws IOException {
+        // Given
+        AccommodationDto accommodation = new AccommodationDto(1L, Type.CONDO,
+                new AddressDto(2L, "Ukraine", "Lviv", "Rynok Square", "4", null),
+                "2 bedrooms", List.of("Wifi"), new BigDecimal("80.50"), 2);
+        String encoded = new String(codec.encode(accommodation), StandardCharsets.ISO_8859_1);
+        byte[] payload = encoded.replace("CONDO", "CASTL").getBytes(StandardCharsets.ISO_8859_1);
+
+        // When & Then
+        assertThatThrownBy(() -> codec.decode(payload, 0, AccommodationDto.class))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("CASTL");
+    }
+}
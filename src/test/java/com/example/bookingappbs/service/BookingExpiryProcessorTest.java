@@ -0,0 +1,129 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.dto.booking.ExpiringBooking;
+import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.model.JobCheckpoint;
+import com.example.bookingappbs.repository.BookingRepository;
+import com.example.bookingappbs.repository.JobCheckpointRepository;
+import com.example.bookingappbs.service.availability.AvailabilityEngine;
+import com.example.bookingappbs.service.booking.BookingCacheKeyBuilder;
+import com.example.bookingappbs.service.booking.BookingExpiryProcessor;
+import com.example.bookingappbs.service.notification.NotificationService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingExpiryProcessorTest {
+    private static final LocalDate CUTOFF = LocalDate.now().minusDays(1);
+    private static final List<Status> EXPIRABLE_STATUSES = List.of(Status.PENDING,
+            Status.CONFIRMED);
+
+    @InjectMocks
+    private BookingExpiryProcessor bookingExpiryProcessor;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+    @Mock
+    private AvailabilityEngine availabilityEngine;
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private BookingCacheKeyBuilder cacheKeyBuilder;
+    @Mock
+    private NotificationService notificationService;
+
+    private JobCheckpoint checkpoint;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingExpiryProcessor, "chunkSize", 2);
+        checkpoint = new JobCheckpoint().setCursorDate(CUTOFF).setLastId(5L);
+    }
+
+    @Test
+    @DisplayName("Verify a full chunk is expired with one update and aggregated side effects")
+    public void expireChunk_FullChunk_ExpiresInBulkAndAdvancesCheckpoint() {
+        // Given
+        ExpiringBooking pending = new ExpiringBooking(10L, 1L, 7L, CUTOFF.minusDays(3),
+                CUTOFF.minusDays(1), Status.PENDING);
+        ExpiringBooking confirmed = new ExpiringBooking(11L, 3L, 8L, CUTOFF.minusDays(2),
+                CUTOFF, Status.CONFIRMED);
+        when(bookingRepository.findExpiring(EXPIRABLE_STATUSES, CUTOFF, 5L,
+                PageRequest.of(0, 2))).thenReturn(List.of(pending, confirmed));
+        when(bookingRepository.expire(List.of(10L, 11L), EXPIRABLE_STATUSES, Status.EXPIRED))
+                .thenReturn(2);
+
+        // When
+        boolean hasMore = bookingExpiryProcessor.expireChunk(checkpoint);
+
+        // Then
+        assertThat(hasMore).isTrue();
+        assertThat(checkpoint.getLastId()).isEqualTo(11L);
+        assertThat(checkpoint.getProcessed()).isEqualTo(2L);
+        verify(availabilityEngine, times(1)).release(7L, pending.checkInDate(),
+                pending.checkOutDate());
+        verify(availabilityEngine, times(1)).release(8L, confirmed.checkInDate(),
+                confirmed.checkOutDate());
+        verify(redisService, times(1))
+                .deleteAll(List.of("bookings::id::10", "bookings::id::11"));
+        verify(cacheKeyBuilder, times(1)).invalidateBookingPages(Set.of(1L, 3L),
+                Set.of(Status.PENDING, Status.CONFIRMED, Status.EXPIRED));
+        verify(notificationService, times(1)).sendNotification(
+                eq("bookings-expired:" + CUTOFF + ":11"), anyString());
+        verify(jobCheckpointRepository, times(1)).save(checkpoint);
+    }
+
+    @Test
+    @DisplayName("Verify an empty chunk finishes the run without side effects")
+    public void expireChunk_NothingToExpire_ReturnsFalse() {
+        // Given
+        when(bookingRepository.findExpiring(any(), any(), eq(5L), any())).thenReturn(List.of());
+
+        // When
+        boolean hasMore = bookingExpiryProcessor.expireChunk(checkpoint);
+
+        // Then
+        assertThat(hasMore).isFalse();
+        verifyNoInteractions(availabilityEngine, redisService, cacheKeyBuilder,
+                notificationService, jobCheckpointRepository);
+    }
+
+    @Test
+    @DisplayName("Verify a partially applied update rolls the chunk back without side effects")
+    public void expireChunk_FewerRowsUpdated_ThrowsWithoutSideEffects() {
+        // Given
+        ExpiringBooking pending = new ExpiringBooking(10L, 1L, 7L, CUTOFF.minusDays(3),
+                CUTOFF.minusDays(1), Status.PENDING);
+        when(bookingRepository.findExpiring(any(), any(), eq(5L), any()))
+                .thenReturn(List.of(pending));
+        when(bookingRepository.expire(List.of(10L), EXPIRABLE_STATUSES, Status.EXPIRED))
+                .thenReturn(0);
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> bookingExpiryProcessor.expireChunk(checkpoint));
+        verifyNoInteractions(availabilityEngine, redisService, cacheKeyBuilder,
+                notificationService, jobCheckpointRepository);
+    }
+}
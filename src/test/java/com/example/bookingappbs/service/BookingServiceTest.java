@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,27 +25,33 @@ import com.example.bookingappbs.model.Accommodation.Type;
 import com.example.bookingappbs.model.Address;
 import com.example.bookingappbs.model.Booking;
 import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.model.JobCheckpoint;
 import com.example.bookingappbs.model.Role;
 import com.example.bookingappbs.model.User;
 import com.example.bookingappbs.repository.AccommodationRepository;
 import com.example.bookingappbs.repository.BookingRepository;
 import com.example.bookingappbs.repository.UserRepository;
+import com.example.bookingappbs.service.availability.AvailabilityEngine;
 import com.example.bookingappbs.service.booking.BookingCacheKeyBuilder;
+import com.example.bookingappbs.service.booking.BookingExpiryProcessor;
 import com.example.bookingappbs.service.booking.BookingNotificationBuilder;
 import com.example.bookingappbs.service.booking.BookingServiceImpl;
 import com.example.bookingappbs.service.notification.NotificationService;
 import com.example.bookingappbs.service.payment.PaymentService;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -76,6 +83,12 @@ public class BookingServiceTest {
     private BookingCacheKeyBuilder cacheKeyBuilder;
     @Mock
     private BookingNotificationBuilder notificationBuilder;
+    @Mock
+    private AvailabilityEngine availabilityEngine;
+    @Mock
+    private BookingExpiryProcessor bookingExpiryProcessor;
+    @Spy
+    private RequestScopedCache requestScopedCache = new RequestScopedCache();
 
     private Address address;
     private Long accommodationId;
@@ -162,7 +175,7 @@ public class BookingServiceTest {
         when(bookingMapper.toModel(createBookingRequestDto)).thenReturn(booking);
         when(accommodationRepository.findById(accommodationId))
                 .thenReturn(Optional.of(accommodation));
-        when(bookingRepository.countOverLappingBookings(any(), any(), any(), any())).thenReturn(0);
+        when(availabilityEngine.tryReserve(any(), any(), any())).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
         String notificationMessage = "New booking created: \n"
@@ -174,7 +187,8 @@ public class BookingServiceTest {
                 + "Check-out Date: 2027-01-18";
         when(notificationBuilder.buildBookingNotificationMessage(
                 "New booking created", booking, accommodation)).thenReturn(notificationMessage);
-        doNothing().when(notificationService).sendNotification(notificationMessage);
+        doNothing().when(notificationService)
+                .sendNotification(anyString(), eq(notificationMessage));
 
         //When
         BookingDto savedBookingDto = bookingService.save(user, createBookingRequestDto);
@@ -186,10 +200,12 @@ public class BookingServiceTest {
         verify(accommodationRepository, times(1)).findById(accommodationId);
         verify(bookingRepository, times(1)).save(any(Booking.class));
         verify(bookingMapper, times(1)).toDto(booking);
-        verify(redisService, times(1)).deletePattern("bookings*");
+        verify(redisService, times(1)).save("bookings::id::" + bookingDto.id(), bookingDto);
+        verify(cacheKeyBuilder, times(1))
+                .invalidateBookingPages(List.of(userId), List.of(Status.PENDING));
         verify(notificationBuilder, times(1)).buildBookingNotificationMessage(
                 "New booking created", booking, accommodation);
-        verify(notificationService, times(1)).sendNotification(anyString());
+        verify(notificationService, times(1)).sendNotification(anyString(), anyString());
 
         verifyNoMoreInteractions(bookingRepository, bookingMapper, paymentService, redisService,
                 notificationService, notificationBuilder);
@@ -222,7 +238,9 @@ public class BookingServiceTest {
                 + "::sort::" + pageable.getSort();
         when(cacheKeyBuilder.buildBookingsPageKey(userId, status.toString(), pageable))
                 .thenReturn(key);
-        when(redisService.findAll(key, BookingDto.class)).thenReturn(null);
+        when(redisService.findPageOrLoad(eq(key), eq(pageable), eq(BookingDto.class), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<BookingDto>>>getArgument(3)
+                        .get());
         Page<Booking> bookingPage = new PageImpl<>(List.of(new Booking().setId(bookingId)));
         when(bookingRepository.findByUserIdAndStatusOptional(userId, status, pageable))
                 .thenReturn(bookingPage);
@@ -244,11 +262,11 @@ public class BookingServiceTest {
         assertThat(result).isEqualTo(bookingDtos);
         verify(cacheKeyBuilder, times(1))
                 .buildBookingsPageKey(userId, status.toString(), pageable);
-        verify(redisService, times(1)).findAll(key, BookingDto.class);
+        verify(redisService, times(1))
+                .findPageOrLoad(eq(key), eq(pageable), eq(BookingDto.class), any());
         verify(bookingRepository, times(1))
                 .findByUserIdAndStatusOptional(userId, status, pageable);
         verify(bookingMapper, times(1)).toDto(any(Booking.class));
-        verify(redisService, times(1)).save(key, bookingDtos);
         verifyNoMoreInteractions(bookingRepository, bookingMapper, redisService, cacheKeyBuilder);
     }
 
@@ -258,7 +276,8 @@ public class BookingServiceTest {
         // Given
         when(cacheKeyBuilder.buildBookingsPageKey(user.getId(), null, pageable))
                 .thenReturn(userBookingsCacheKey);
-        when(redisService.findAll(userBookingsCacheKey, BookingDto.class))
+        when(redisService.findPageOrLoad(
+                eq(userBookingsCacheKey), eq(pageable), eq(BookingDto.class), any()))
                 .thenReturn(List.of(bookingDto));
 
         // When
@@ -267,10 +286,31 @@ public class BookingServiceTest {
         // Then
         assertThat(result).isEqualTo(List.of(bookingDto));
         verify(cacheKeyBuilder, times(1)).buildBookingsPageKey(user.getId(), null, pageable);
-        verify(redisService, times(1)).findAll(userBookingsCacheKey, BookingDto.class);
+        verify(redisService, times(1)).findPageOrLoad(
+                eq(userBookingsCacheKey), eq(pageable), eq(BookingDto.class), any());
         verifyNoMoreInteractions(bookingRepository, bookingMapper, redisService, cacheKeyBuilder);
     }
 
+    @Test
+    @DisplayName("Verify getBookingsByUser() treats a cached empty page as a hit")
+    public void getBookingsByUser_CachedEmptyPage_SkipDatabase() {
+        // Given
+        when(cacheKeyBuilder.buildBookingsPageKey(user.getId(), null, pageable))
+                .thenReturn(userBookingsCacheKey);
+        when(redisService.findPageOrLoad(
+                eq(userBookingsCacheKey), eq(pageable), eq(BookingDto.class), any()))
+                .thenReturn(List.of());
+
+        // When
+        List<BookingDto> result = bookingService.getBookingsByUser(user, pageable);
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(redisService, times(1)).findPageOrLoad(
+                eq(userBookingsCacheKey), eq(pageable), eq(BookingDto.class), any());
+        verifyNoMoreInteractions(bookingRepository, bookingMapper, redisService);
+    }
+
     @Test
     @DisplayName("Verify getBookingById() method works and fetches from DB and caches")
     public void getBookingById_NoCache_FetchFromDbAndCache() {
@@ -284,7 +324,9 @@ public class BookingServiceTest {
         // Then
         assertThat(result).isEqualTo(bookingDto);
         verify(bookingRepository, times(1)).findById(bookingId);
+        verify(redisService, times(1)).find("bookings::id::" + bookingId, BookingDto.class);
         verify(bookingMapper, times(1)).toDto(booking);
+        verify(redisService, times(1)).save("bookings::id::" + bookingDto.id(), bookingDto);
         verifyNoMoreInteractions(bookingRepository, bookingMapper, redisService);
     }
 
@@ -293,9 +335,7 @@ public class BookingServiceTest {
     public void updateBookingById_AdminUpdateUserStatus_Success() {
         // Given
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository
-                .countOverlappingBookingsExcludingCurrent(any(), any(), any(), any(), any()))
-                .thenReturn(0);
+        when(availabilityEngine.tryReschedule(any(), any(), any())).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
 
@@ -309,11 +349,12 @@ public class BookingServiceTest {
         assertThat(result).isEqualTo(bookingDto);
         assertThat(booking.getStatus()).isEqualTo(Status.CONFIRMED);
         verify(bookingRepository, times(1)).findById(bookingId);
-        verify(bookingRepository, times(1))
-                .countOverlappingBookingsExcludingCurrent(any(), any(), any(), any(), any());
+        verify(availabilityEngine, times(1)).tryReschedule(any(), any(), any());
         verify(bookingRepository, times(1)).save(booking);
         verify(bookingMapper, times(1)).toDto(booking);
-        verify(redisService, times(1)).deletePattern("bookings*");
+        verify(cacheKeyBuilder, times(1))
+                .invalidateBookingPages(List.of(userId), Arrays.asList(null, Status.CONFIRMED));
+        verify(redisService, times(1)).save("bookings::id::" + bookingDto.id(), bookingDto);
         verifyNoMoreInteractions(bookingMapper, redisService);
     }
 
@@ -361,6 +402,7 @@ public class BookingServiceTest {
         Accommodation accommodationToDelete = new Accommodation().setId(2L).setType(Type.APARTMENT)
                 .setLocation(new Address().setStreet("Test").setHouse("1"));
         Booking existingBookingToDelete = new Booking().setId(bookingId)
+                .setUser(user)
                 .setStatus(Status.PENDING)
                 .setAccommodation(accommodationToDelete)
                 .setCheckInDate(LocalDate.now())
@@ -386,7 +428,8 @@ public class BookingServiceTest {
                         existingBookingToDelete,
                         accommodationToDelete
                 )).thenReturn(notificationMessage);
-        doNothing().when(notificationService).sendNotification(notificationMessage);
+        doNothing().when(notificationService)
+                .sendNotification(anyString(), eq(notificationMessage));
 
         // When
         bookingService.deleteBookingById(user, bookingId);
@@ -396,9 +439,51 @@ public class BookingServiceTest {
         verify(bookingRepository, times(1)).findById(bookingId);
         verify(bookingRepository, times(1)).save(existingBookingToDelete);
         verify(bookingRepository, times(1)).delete(existingBookingToDelete);
-        verify(redisService, times(1)).deletePattern("bookings*");
-        verify(notificationService, times(1)).sendNotification(anyString());
+        verify(redisService, times(1)).deleteAll(List.of("bookings::id::" + bookingId));
+        verify(cacheKeyBuilder, times(1)).invalidateBookingPages(
+                List.of(userId), Arrays.asList(Status.PENDING, Status.CANCELED));
+        verify(notificationService, times(1)).sendNotification(
+                "booking-canceled:" + bookingId, notificationMessage);
         verifyNoMoreInteractions(bookingRepository, redisService, notificationService,
                 notificationBuilder);
     }
+
+    @Test
+    @DisplayName("Verify checkAndExpiredBooking() expires chunks until the backlog is drained")
+    public void checkAndExpiredBooking_SeveralChunks_ProcessesAllChunks() {
+        // Given
+        JobCheckpoint checkpoint = new JobCheckpoint()
+                .setCursorDate(LocalDate.now().minusDays(1));
+        when(bookingExpiryProcessor.checkpoint(LocalDate.now().minusDays(1)))
+                .thenReturn(checkpoint);
+        when(bookingExpiryProcessor.expireChunk(checkpoint)).thenAnswer(invocation -> {
+            checkpoint.setProcessed(checkpoint.getProcessed() + 500);
+            return checkpoint.getProcessed() < 1500;
+        });
+
+        // When
+        bookingService.checkAndExpiredBooking();
+
+        // Then
+        verify(bookingExpiryProcessor, times(3)).expireChunk(checkpoint);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("Verify checkAndExpiredBooking() reports a day without expired bookings")
+    public void checkAndExpiredBooking_NoExpiredBookings_SendsNotification() {
+        // Given
+        JobCheckpoint checkpoint = new JobCheckpoint()
+                .setCursorDate(LocalDate.now().minusDays(1));
+        when(bookingExpiryProcessor.checkpoint(LocalDate.now().minusDays(1)))
+                .thenReturn(checkpoint);
+        when(bookingExpiryProcessor.expireChunk(checkpoint)).thenReturn(false);
+
+        // When
+        bookingService.checkAndExpiredBooking();
+
+        // Then
+        verify(notificationService, times(1)).sendNotification(
+                "no-expired-bookings:" + LocalDate.now(), "No expired bookings today!");
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CacheNamespacesTest {
+    private final CacheNamespaces cacheNamespaces = new CacheNamespaces(
+            Duration.ofMinutes(10),
+            Map.of("bookings", "PT20M", "bookings::gen", "PT5M", "accommodations::id", "PT1H")
+    );
+
+    @Test
+    @DisplayName("Verify keys resolve to the longest configured namespace and its TTL")
+    public void ttlOf_ConfiguredNamespaces_UseLongestPrefix() {
+        // When
+        Duration pageTtl = cacheNamespaces.ttlOf("bookings::gen::3::user::1::page::0::size::10");
+        Duration bookingTtl = cacheNamespaces.ttlOf("bookings::id::1");
+        Duration accommodationTtl = cacheNamespaces.ttlOf("accommodations::id::7");
+
+        // Then
+        assertThat(pageTtl).isEqualTo(Duration.ofMinutes(5));
+        assertThat(bookingTtl).isEqualTo(Duration.ofMinutes(20));
+        assertThat(accommodationTtl).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Verify unknown keys fall back to the root namespace and default TTL")
+    public void namespaceOf_UnknownKey_ReturnRootNamespace() {
+        // When
+        String namespace = cacheNamespaces.namespaceOf("accommodations::all::gen:1::page:0");
+        Duration ttl = cacheNamespaces.ttlOf("accommodations::all::gen:1::page:0");
+
+        // Then
+        assertThat(namespace).isEqualTo("accommodations");
+        assertThat(ttl).isEqualTo(Duration.ofMinutes(10));
+    }
+}
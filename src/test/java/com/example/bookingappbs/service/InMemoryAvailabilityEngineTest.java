@@ -0,0 +1,147 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.dto.booking.BookingStay;
+import com.example.bookingappbs.model.Accommodation;
+import com.example.bookingappbs.model.Booking;
+import com.example.bookingappbs.model.Booking.Status;
+import com.example.bookingappbs.repository.BookingRepository;
+import com.example.bookingappbs.service.availability.InMemoryAvailabilityEngine;
+import com.example.bookingappbs.service.availability.JpaAvailabilityEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryAvailabilityEngineTest {
+    @InjectMocks
+    private InMemoryAvailabilityEngine availabilityEngine;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private JpaAvailabilityEngine jpaAvailabilityEngine;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Accommodation accommodation;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(availabilityEngine, "horizonDays", 365);
+        accommodation = new Accommodation().setId(1L).setAvailability(1);
+        checkInDate = LocalDate.now().plusDays(10);
+        checkOutDate = checkInDate.plusDays(3);
+    }
+
+    @Test
+    @DisplayName("Verify tryReserve() falls back to JPA engine before warm-up")
+    public void tryReserve_NotWarmedUp_DelegatesToJpaEngine() {
+        // Given
+        when(jpaAvailabilityEngine.tryReserve(accommodation, checkInDate, checkOutDate))
+                .thenReturn(true);
+
+        // When
+        boolean result = availabilityEngine.tryReserve(accommodation, checkInDate, checkOutDate);
+
+        // Then
+        assertThat(result).isTrue();
+        verify(jpaAvailabilityEngine).tryReserve(accommodation, checkInDate, checkOutDate);
+    }
+
+    @Test
+    @DisplayName("Verify tryReserve() rejects dates occupied by warmed-up bookings")
+    public void tryReserve_OverlappingStoredBooking_ReturnsFalse() {
+        // Given
+        when(bookingRepository.findActiveStays(any(), any())).thenReturn(List.of(
+                new BookingStay(1L, checkInDate.plusDays(2), checkOutDate.plusDays(2))));
+        availabilityEngine.warmUp();
+
+        // When
+        boolean overlapping = availabilityEngine
+                .tryReserve(accommodation, checkInDate, checkOutDate);
+        boolean adjacent = availabilityEngine
+                .tryReserve(accommodation, checkInDate.minusDays(1), checkInDate.plusDays(2));
+
+        // Then
+        assertThat(overlapping).isFalse();
+        assertThat(adjacent).isTrue();
+        verifyNoInteractions(jpaAvailabilityEngine);
+    }
+
+    @Test
+    @DisplayName("Verify release() frees units for subsequent reservations")
+    public void release_ReservedDates_AllowsNewReservation() {
+        // Given
+        when(bookingRepository.findActiveStays(any(), any())).thenReturn(List.of());
+        availabilityEngine.warmUp();
+        availabilityEngine.tryReserve(accommodation, checkInDate, checkOutDate);
+
+        // When
+        boolean beforeRelease = availabilityEngine
+                .tryReserve(accommodation, checkInDate, checkOutDate);
+        availabilityEngine.release(accommodation.getId(), checkInDate, checkOutDate);
+        boolean afterRelease = availabilityEngine
+                .tryReserve(accommodation, checkInDate, checkOutDate);
+
+        // Then
+        assertThat(beforeRelease).isFalse();
+        assertThat(afterRelease).isTrue();
+    }
+
+    @Test
+    @DisplayName("Verify a release without a matching reservation is counted as an underflow")
+    public void release_NotReserved_CountsUnderflow() {
+        // Given
+        when(bookingRepository.findActiveStays(any(), any())).thenReturn(List.of());
+        availabilityEngine.warmUp();
+
+        // When
+        availabilityEngine.release(accommodation.getId(), checkInDate, checkOutDate);
+
+        // Then
+        assertThat(meterRegistry.get("availability.occupancy.underflows").counter().count())
+                .isEqualTo(3);
+        assertThat(availabilityEngine.tryReserve(accommodation, checkInDate, checkOutDate))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Verify tryReschedule() moves the booking's own units to new dates")
+    public void tryReschedule_ActiveBooking_MovesOccupiedUnits() {
+        // Given
+        when(bookingRepository.findActiveStays(any(), any())).thenReturn(List.of(
+                new BookingStay(1L, checkInDate, checkOutDate)));
+        availabilityEngine.warmUp();
+        Booking booking = new Booking()
+                .setAccommodation(accommodation)
+                .setCheckInDate(checkInDate)
+                .setCheckOutDate(checkOutDate)
+                .setStatus(Status.CONFIRMED);
+
+        // When
+        boolean rescheduled = availabilityEngine
+                .tryReschedule(booking, checkInDate.plusDays(1), checkOutDate.plusDays(1));
+        boolean oldFirstNightFree = availabilityEngine
+                .tryReserve(accommodation, checkInDate, checkInDate.plusDays(1));
+
+        // Then
+        assertThat(rescheduled).isTrue();
+        assertThat(oldFirstNightFree).isTrue();
+    }
+}
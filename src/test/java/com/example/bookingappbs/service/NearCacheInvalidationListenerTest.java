@@ -0,0 +1,52 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+public class NearCacheInvalidationListenerTest {
+    private final NearCache nearCache = new NearCache(1024, Duration.ofSeconds(30));
+    private final NearCacheInvalidationListener listener =
+            new NearCacheInvalidationListener(nearCache);
+
+    @BeforeEach
+    void setUp() {
+        nearCache.put("bookings::id::1", "first", 16);
+        nearCache.put("bookings::id::2", "second", 16);
+        nearCache.put("bookings::id::3", "third", 16);
+    }
+
+    @Test
+    @DisplayName("Verify a key list message evicts only the listed keys")
+    public void onMessage_KeyList_InvalidatesListedKeys() {
+        // When
+        listener.onMessage(message("bookings::id::1" + NearCache.INVALIDATION_SEPARATOR
+                + "bookings::id::2"), null);
+
+        // Then
+        assertThat(nearCache.<String>get("bookings::id::1")).isNull();
+        assertThat(nearCache.<String>get("bookings::id::2")).isNull();
+        assertThat(nearCache.<String>get("bookings::id::3")).isEqualTo("third");
+    }
+
+    @Test
+    @DisplayName("Verify the invalidate-all message clears the near cache")
+    public void onMessage_InvalidateAll_ClearsEveryKey() {
+        // When
+        listener.onMessage(message(NearCache.INVALIDATE_ALL), null);
+
+        // Then
+        assertThat(nearCache.<String>get("bookings::id::1")).isNull();
+        assertThat(nearCache.<String>get("bookings::id::3")).isNull();
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(NearCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class NearCacheTest {
+    private final NearCache nearCache = new NearCache(1024, Duration.ofSeconds(30));
+
+    @Test
+    @DisplayName("Verify a value read before an invalidation is not stored")
+    public void putIfNotInvalidatedSince_InvalidatedAfterRead_SkipsPut() {
+        // Given
+        long version = nearCache.invalidationVersion();
+        nearCache.invalidate(List.of("bookings::generation"));
+
+        // When
+        boolean stored = nearCache.putIfNotInvalidatedSince("bookings::generation", 3L,
+                Long.BYTES, version);
+
+        // Then
+        assertThat(stored).isFalse();
+        assertThat(nearCache.<Long>get("bookings::generation")).isNull();
+    }
+
+    @Test
+    @DisplayName("Verify a value read without a concurrent invalidation is stored")
+    public void putIfNotInvalidatedSince_NoInvalidation_StoresValue() {
+        // Given
+        long version = nearCache.invalidationVersion();
+
+        // When
+        boolean stored = nearCache.putIfNotInvalidatedSince("bookings::generation", 3L,
+                Long.BYTES, version);
+
+        // Then
+        assertThat(stored).isTrue();
+        assertThat(nearCache.<Long>get("bookings::generation")).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Verify invalidating every entry also fences off in-flight reads")
+    public void invalidateAll_InFlightRead_ClearsAndBumpsVersion() {
+        // Given
+        nearCache.put("bookings::id::1", "booking", 16);
+        long version = nearCache.invalidationVersion();
+
+        // When
+        nearCache.invalidateAll();
+
+        // Then
+        assertThat(nearCache.<String>get("bookings::id::1")).isNull();
+        assertThat(nearCache.invalidationVersion()).isNotEqualTo(version);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.example.bookingappbs.service.notification.NotificationDispatcher;
+import com.example.bookingappbs.service.notification.TelegramService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDispatcherTest {
+    @Mock
+    private TelegramService telegramService;
+
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        notificationDispatcher = new NotificationDispatcher(telegramService,
+                new SimpleMeterRegistry(), 10, 100, Duration.ofMillis(1), 3,
+                Duration.ofMillis(1), Duration.ofMillis(4));
+    }
+
+    @Test
+    @DisplayName("Verify a burst of expired bookings is coalesced into a single digest")
+    public void deliver_BurstOfNotifications_SendsDigest() throws TelegramApiException {
+        // Given
+        List<String> notifications = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            notifications.add("Booking expired: \nBooking ID: " + i);
+        }
+        notifications.add("No expired bookings today!");
+
+        // When
+        boolean delivered = notificationDispatcher.deliver(notifications);
+
+        // Then
+        assertThat(delivered).isTrue();
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(telegramService, times(2)).send(messages.capture());
+        List<String> sent = messages.getAllValues();
+        assertThat(sent.get(0)).startsWith("Booking expired (10000 notifications)")
+                .contains("Booking ID: 10\n")
+                .endsWith("...and 9990 more")
+                .hasSizeLessThanOrEqualTo(4096);
+        assertThat(sent.get(1)).isEqualTo("No expired bookings today!");
+    }
+
+    @Test
+    @DisplayName("Verify a failed send is retried with backoff")
+    public void deliver_TransientFailure_RetriesSend() throws TelegramApiException {
+        // Given
+        doThrow(new TelegramApiException("Connection reset"))
+                .doNothing()
+                .when(telegramService).send(anyString());
+
+        // When
+        boolean delivered = notificationDispatcher
+                .deliver(List.of("Payment successful: \nPayment ID: 1"));
+
+        // Then
+        assertThat(delivered).isTrue();
+        verify(telegramService, times(2)).send("Payment successful: \nPayment ID: 1");
+    }
+
+    @Test
+    @DisplayName("Verify exhausted retries report the batch as undelivered")
+    public void deliver_TelegramUnavailable_ReturnsFalse() throws TelegramApiException {
+        // Given
+        doThrow(new TelegramApiException("Connection reset"))
+                .when(telegramService).send(anyString());
+
+        // When
+        boolean delivered = notificationDispatcher
+                .deliver(List.of("Payment successful: \nPayment ID: 1"));
+
+        // Then
+        assertThat(delivered).isFalse();
+        verify(telegramService, times(3)).send(anyString());
+    }
+
+    @Test
+    @DisplayName("Verify each delivered digest is reported before a later digest fails")
+    public void deliver_LaterDigestFails_ReportsDeliveredDigest() throws TelegramApiException {
+        // Given
+        doNothing().doThrow(new TelegramApiException("Connection reset"))
+                .when(telegramService).send(anyString());
+        List<String> notifications = List.of(
+                "Payment successful: \nPayment ID: 1",
+                "Booking expired: \nBooking ID: 2");
+        List<List<String>> delivered = new ArrayList<>();
+
+        // When
+        boolean allDelivered = notificationDispatcher.deliver(notifications, Function.identity(),
+                delivered::add);
+
+        // Then
+        assertThat(allDelivered).isFalse();
+        assertThat(delivered).containsExactly(List.of("Payment successful: \nPayment ID: 1"));
+    }
+}
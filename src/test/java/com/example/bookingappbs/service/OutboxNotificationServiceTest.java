@@ -0,0 +1,152 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bookingappbs.model.OutboxMessage;
+import com.example.bookingappbs.repository.OutboxMessageRepository;
+import com.example.bookingappbs.service.notification.OutboxNotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OutboxNotificationService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OutboxNotificationServiceTest {
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private OutboxNotificationService outboxNotificationService;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+    @Value("${notifications.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @AfterEach
+    void tearDown() {
+        outboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Verify a repeated dedup key is skipped without failing the transaction")
+    public void sendNotification_DuplicateDedupKey_KeepsFirstMessage() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            outboxNotificationService.sendNotification("booking-created:1", "First");
+            outboxNotificationService.sendNotification("booking-created:1", "Second");
+        });
+
+        // Then
+        List<OutboxMessage> messages = outboxMessageRepository.findAll();
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).getMessage()).isEqualTo("First");
+    }
+
+    @Test
+    @DisplayName("Verify a claimed batch is leased and not claimed again before the lease ends")
+    public void claimBatch_ClaimedMessages_AreLeased() {
+        // Given
+        outboxNotificationService.sendNotification("booking-created:1", "First");
+        LocalDateTime claimedAt = LocalDateTime.now();
+
+        // When
+        List<OutboxMessage> claimed = outboxNotificationService.claimBatch(10, LEASE);
+        List<OutboxMessage> claimedAgain = outboxNotificationService.claimBatch(10, LEASE);
+
+        // Then
+        assertThat(claimed).hasSize(1);
+        assertThat(claimedAgain).isEmpty();
+        OutboxMessage stored = outboxMessageRepository.findAll().get(0);
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getAvailableAt()).isAfterOrEqualTo(claimedAt.plus(LEASE));
+    }
+
+    @Test
+    @DisplayName("Verify a message that exhausted its attempts is marked failed, not claimed")
+    public void claimBatch_AttemptsExhausted_MarksMessageFailed() {
+        // Given
+        outboxNotificationService.sendNotification("booking-created:1", "First");
+        OutboxMessage message = outboxMessageRepository.findAll().get(0);
+        message.setAttempts(maxAttempts);
+        outboxMessageRepository.save(message);
+
+        // When
+        List<OutboxMessage> claimed = outboxNotificationService.claimBatch(10, LEASE);
+        List<OutboxMessage> claimedAgain = outboxNotificationService.claimBatch(10, LEASE);
+
+        // Then
+        assertThat(claimed).isEmpty();
+        assertThat(claimedAgain).isEmpty();
+        OutboxMessage stored = outboxMessageRepository.findAll().get(0);
+        assertThat(stored.getFailedAt()).isNotNull();
+        assertThat(stored.getAttempts()).isEqualTo(maxAttempts);
+        assertThat(meterRegistry.counter("notifications.outbox.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Verify a concurrent relay never claims rows held by an open claim")
+    public void claimBatch_RowsLockedByAnotherClaim_ClaimsOthersOnly() throws Exception {
+        // Given
+        outboxNotificationService.sendNotification("booking-created:1", "First");
+        outboxNotificationService.sendNotification("booking-created:2", "Second");
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<List<OutboxMessage>> holder = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    List<OutboxMessage> batch = outboxNotificationService.claimBatch(1, LEASE);
+                    claimed.countDown();
+                    awaitQuietly(release);
+                    return batch;
+                }));
+        assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        // Postgres skips the locked row; H2 has no SKIP LOCKED and waits, then sees the lease
+        CompletableFuture<List<OutboxMessage>> concurrentClaim = CompletableFuture.supplyAsync(
+                () -> outboxNotificationService.claimBatch(10, LEASE));
+        Thread.sleep(200);
+        release.countDown();
+
+        // Then
+        List<OutboxMessage> held = holder.get(5, TimeUnit.SECONDS);
+        List<OutboxMessage> concurrent = concurrentClaim.get(5, TimeUnit.SECONDS);
+        assertThat(held).extracting(OutboxMessage::getDedupKey)
+                .containsExactly("booking-created:1");
+        assertThat(concurrent).extracting(OutboxMessage::getDedupKey)
+                .containsExactly("booking-created:2");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bookingappbs.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.model.OutboxMessage;
+import com.example.bookingappbs.service.notification.NotificationDispatcher;
+import com.example.bookingappbs.service.notification.OutboxNotificationService;
+import com.example.bookingappbs.service.notification.OutboxRelay;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Mock
+    private OutboxNotificationService outboxNotificationService;
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxNotificationService, notificationDispatcher,
+                Runnable::run, 2, LEASE, Duration.ofDays(7));
+    }
+
+    @Test
+    @DisplayName("Verify delivered outbox batches are marked as sent until the outbox is drained")
+    public void relay_DeliveredBatches_MarksSent() {
+        // Given
+        when(outboxNotificationService.claimBatch(2, LEASE))
+                .thenReturn(List.of(outboxMessage(1L), outboxMessage(2L)))
+                .thenReturn(List.of(outboxMessage(3L)));
+        when(notificationDispatcher.deliver(anyList(), any(), any())).thenAnswer(invocation -> {
+            Consumer<List<OutboxMessage>> onDelivered = invocation.getArgument(2);
+            onDelivered.accept(invocation.getArgument(0));
+            return true;
+        });
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(notificationDispatcher, times(2)).deliver(anyList(), any(), any());
+        verify(outboxNotificationService, times(1)).markSent(List.of(1L, 2L));
+        verify(outboxNotificationService, times(1)).markSent(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("Verify an undelivered batch stays in the outbox for a later retry")
+    public void relay_DeliveryFailed_LeavesMessagesPending() {
+        // Given
+        when(outboxNotificationService.claimBatch(2, LEASE))
+                .thenReturn(List.of(outboxMessage(1L)));
+        when(notificationDispatcher.deliver(anyList(), any(), any())).thenReturn(false);
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(outboxNotificationService, times(1)).claimBatch(2, LEASE);
+        verify(outboxNotificationService, never()).markSent(any());
+    }
+
+    @Test
+    @DisplayName("Verify digests delivered before a failure are not sent again")
+    public void relay_LaterDigestFailed_MarksDeliveredDigestsOnly() {
+        // Given
+        OutboxMessage first = outboxMessage(1L);
+        when(outboxNotificationService.claimBatch(2, LEASE))
+                .thenReturn(List.of(first, outboxMessage(2L)));
+        when(notificationDispatcher.deliver(anyList(), any(), any())).thenAnswer(invocation -> {
+            Consumer<List<OutboxMessage>> onDelivered = invocation.getArgument(2);
+            onDelivered.accept(List.of(first));
+            return false;
+        });
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        verify(outboxNotificationService, times(1)).markSent(List.of(1L));
+        verify(outboxNotificationService, times(1)).claimBatch(2, LEASE);
+    }
+
+    private OutboxMessage outboxMessage(Long id) {
+        OutboxMessage outboxMessage = new OutboxMessage();
+        outboxMessage.setId(id);
+        outboxMessage.setDedupKey("booking-created:" + id);
+        outboxMessage.setMessage("Message " + id);
+        return outboxMessage;
+    }
+}
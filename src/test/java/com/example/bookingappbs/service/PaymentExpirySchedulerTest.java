@@ -0,0 +1,193 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.dto.payment.CheckoutSession;
+import com.example.bookingappbs.dto.payment.PaymentDto;
+import com.example.bookingappbs.model.Payment;
+import com.example.bookingappbs.model.Payment.Status;
+import com.example.bookingappbs.service.payment.PaymentExpiryScheduler;
+import com.example.bookingappbs.service.payment.PaymentGateway;
+import com.example.bookingappbs.service.payment.PaymentService;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentExpirySchedulerTest {
+    @Mock
+    private PaymentGateway paymentGateway;
+    @Mock
+    private PaymentService paymentService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PaymentExpiryScheduler paymentExpiryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        paymentExpiryScheduler = new PaymentExpiryScheduler(paymentGateway, paymentService,
+                meterRegistry, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify only sessions past their stored deadline are checked with Stripe")
+    public void expireDueSessions_DueAndFutureSessions_ChecksOnlyDueSession() throws Exception {
+        // Given
+        paymentExpiryScheduler.schedule("due_session", LocalDateTime.now().minusMinutes(1));
+        paymentExpiryScheduler.schedule("future_session", LocalDateTime.now().plusHours(23));
+        when(paymentService.findBySessionId("due_session")).thenReturn(payment("due_session",
+                Status.PENDING));
+        when(paymentGateway.retrieveSession("due_session")).thenReturn(session("expired",
+                LocalDateTime.now().minusMinutes(1)));
+
+        // When
+        paymentExpiryScheduler.expireDueSessions();
+
+        // Then
+        verify(paymentGateway, times(1)).retrieveSession("due_session");
+        verify(paymentGateway, never()).retrieveSession("future_session");
+        verify(paymentService, times(1)).expirePendingPayment("due_session");
+    }
+
+    @Test
+    @DisplayName("Verify a Stripe failure is isolated to its session and retried later")
+    public void expireDueSessions_StripeFailure_ContinuesWithOtherSessions() throws Exception {
+        // Given
+        paymentExpiryScheduler.schedule("failing_session", LocalDateTime.now().minusMinutes(2));
+        paymentExpiryScheduler.schedule("paid_session", LocalDateTime.now().minusMinutes(1));
+        when(paymentService.findBySessionId("failing_session"))
+                .thenReturn(payment("failing_session", Status.PENDING));
+        when(paymentService.findBySessionId("paid_session")).thenReturn(payment("paid_session",
+                Status.PENDING));
+        when(paymentGateway.retrieveSession("failing_session"))
+                .thenThrow(new ApiConnectionException("Connection reset"));
+        when(paymentGateway.retrieveSession("paid_session")).thenReturn(session("complete",
+                LocalDateTime.now().minusMinutes(1)));
+
+        // When
+        paymentExpiryScheduler.expireDueSessions();
+        paymentExpiryScheduler.expireDueSessions();
+
+        // Then
+        verify(paymentGateway, times(1)).retrieveSession("failing_session");
+        verify(paymentGateway, times(1)).retrieveSession("paid_session");
+        verify(paymentService, never()).expirePendingPayment(anyString());
+    }
+
+    @Test
+    @DisplayName("Verify a payment already settled by a webhook is not checked with Stripe")
+    public void expireDueSessions_PaymentSettledLocally_SkipsStripe() {
+        // Given
+        paymentExpiryScheduler.schedule("paid_session", LocalDateTime.now().minusMinutes(1));
+        when(paymentService.findBySessionId("paid_session")).thenReturn(payment("paid_session",
+                Status.PAID));
+
+        // When
+        paymentExpiryScheduler.expireDueSessions();
+
+        // Then
+        verifyNoInteractions(paymentGateway);
+        verify(paymentService, never()).expirePendingPayment(anyString());
+    }
+
+    @Test
+    @DisplayName("Verify a deadline scheduled inside a transaction is queued only on commit")
+    public void schedule_ActiveTransaction_QueuesAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        paymentExpiryScheduler.schedule("due_session", LocalDateTime.now().minusMinutes(1));
+
+        // When
+        paymentExpiryScheduler.expireDueSessions();
+
+        // Then
+        verifyNoInteractions(paymentService);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertThat(meterRegistry.get("payments.expiry.scheduled").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Verify a session Stripe does not know is dead-lettered instead of retried")
+    public void expireDueSessions_SessionNotFound_DropsDeadline() throws Exception {
+        // Given
+        paymentExpiryScheduler.schedule("missing_session", LocalDateTime.now().minusMinutes(1));
+        when(paymentService.findBySessionId("missing_session"))
+                .thenReturn(payment("missing_session", Status.PENDING));
+        when(paymentGateway.retrieveSession("missing_session"))
+                .thenThrow(new InvalidRequestException("No such checkout.session",
+                        "id", null, null, 404, null));
+        when(paymentService.findByStatus(Status.PENDING))
+                .thenReturn(List.of(pendingPayment("missing_session")));
+
+        // When
+        paymentExpiryScheduler.expireDueSessions();
+        paymentExpiryScheduler.reconcile();
+
+        // Then
+        assertThat(meterRegistry.get("payments.expiry.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payments.expiry.scheduled").gauge().value()).isZero();
+        assertThat(meterRegistry.get("payments.expiry.dead-letters").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Verify reconciliation queues pending payments that have no deadline yet")
+    public void reconcile_PendingPaymentsMissingDeadline_SchedulesEachOnce() {
+        // Given
+        paymentExpiryScheduler.schedule("queued_session", LocalDateTime.now().plusHours(1));
+        when(paymentService.findByStatus(Status.PENDING)).thenReturn(List.of(
+                pendingPayment("queued_session"), pendingPayment("lost_session")));
+
+        // When
+        paymentExpiryScheduler.reconcile();
+        paymentExpiryScheduler.reconcile();
+
+        // Then
+        assertThat(meterRegistry.get("payments.expiry.scheduled").gauge().value()).isEqualTo(2);
+    }
+
+    private Payment pendingPayment(String sessionId) {
+        Payment payment = new Payment();
+        payment.setSessionId(sessionId);
+        payment.setStatus(Status.PENDING);
+        payment.setExpiresAt(LocalDateTime.now().plusHours(1));
+        return payment;
+    }
+
+    private PaymentDto payment(String sessionId, Status status) {
+        return new PaymentDto(1L, status.toString(), 1L, "https://checkout.stripe.com/" + sessionId,
+                sessionId, BigDecimal.valueOf(100));
+    }
+
+    private CheckoutSession session(String status, LocalDateTime expiresAt) {
+        return new CheckoutSession("session", "https://checkout.stripe.com/session", status,
+                "unpaid", expiresAt);
+    }
+}
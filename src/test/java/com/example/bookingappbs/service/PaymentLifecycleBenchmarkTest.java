@@ -0,0 +1,147 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bookingappbs.dto.payment.PaymentDto;
+import com.example.bookingappbs.model.Payment.Status;
+import com.example.bookingappbs.model.User;
+import com.example.bookingappbs.service.payment.PaymentExpiryScheduler;
+import com.example.bookingappbs.service.payment.PaymentProcessingService;
+import com.example.bookingappbs.service.payment.PaymentService;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.ui.ExtendedModelMap;
+
+@SpringBootTest(properties = {
+        "payment.gateway=simulator",
+        "payment.simulator.create-latency.median=PT0.002S",
+        "payment.simulator.create-latency.p99=PT0.01S",
+        "payment.simulator.retrieve-latency.median=PT0.001S",
+        "payment.simulator.retrieve-latency.p99=PT0.005S",
+        "payment.simulator.failure-rate=0",
+        "payment.simulator.completion-delay=PT0S",
+        "payment.simulator.session-ttl=PT1S",
+        "payment.simulator.session-retention=PT1H",
+        "payment.expiry.webhook-grace=PT0S"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "payment.benchmark", matches = "true")
+public class PaymentLifecycleBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger(PaymentLifecycleBenchmarkTest.class);
+    private static final int BOOKINGS = 500;
+
+    @Autowired
+    private PaymentProcessingService paymentProcessingService;
+    @Autowired
+    private PaymentExpiryScheduler paymentExpiryScheduler;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        tearDown();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/accommodations/add-three-accommodations.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/users/add-test-user.sql"));
+        }
+        Long userId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = 'test@example.com'", Long.class);
+        Long accommodationId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM accommodations", Long.class);
+        user = new User().setId(userId).setEmail("test@example.com");
+
+        LocalDate checkIn = LocalDate.now().plusYears(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            rows.add(new Object[]{checkIn.plusDays(2L * i), checkIn.plusDays(2L * i + 1),
+                    accommodationId, userId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (check_in_date, check_out_date, "
+                + "accommodation_id, user_id, status, is_deleted) "
+                + "VALUES (?, ?, ?, ?, 'PENDING', FALSE)", rows);
+        bookingIds = jdbcTemplate.queryForList("SELECT id FROM bookings ORDER BY id", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jdbcTemplate.update("DELETE FROM payments");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/bookings/drop-all-bookings.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/accommodations/drop-all-accommodations.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("database/users/drop-all-test-users.sql"));
+        }
+    }
+
+    @Test
+    @DisplayName("Drive create, success and expiry through the simulated payment gateway")
+    public void paymentLifecycle_SimulatedGateway_ReportsOpsPerSecond() throws Exception {
+        // When
+        List<PaymentDto> payments = new ArrayList<>();
+        long createNanos = measure(() -> bookingIds.forEach(bookingId -> {
+            try {
+                payments.add(paymentProcessingService.createPaymentSession(user, bookingId));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        List<PaymentDto> completed = payments.stream()
+                .filter(payment -> payment.sessionUrl().contains("/payments/success"))
+                .toList();
+        long successNanos = measure(() -> completed.forEach(payment -> paymentProcessingService
+                .handlePaymentSuccess(payment.sessionId(), new ExtendedModelMap())));
+        Thread.sleep(1_500);
+        long expiryNanos = measure(paymentExpiryScheduler::expireDueSessions);
+
+        // Then
+        logger.info("Create session: {} ops/s over {} bookings",
+                opsPerSecond(BOOKINGS, createNanos), BOOKINGS);
+        logger.info("Success redirect: {} ops/s over {} payments",
+                opsPerSecond(completed.size(), successNanos), completed.size());
+        logger.info("Expiry sweep: {} ms for {} abandoned sessions",
+                expiryNanos / 1_000_000, BOOKINGS - completed.size());
+        assertThat(paymentService.findByStatus(Status.PAID)).hasSize(completed.size());
+        assertThat(paymentService.findByStatus(Status.EXPIRED))
+                .hasSize(BOOKINGS - completed.size());
+        assertThat(paymentService.findByStatus(Status.PENDING)).isEmpty();
+    }
+
+    private long measure(Runnable operations) {
+        long start = System.nanoTime();
+        operations.run();
+        return System.nanoTime() - start;
+    }
+
+    private long opsPerSecond(int operations, long nanos) {
+        return operations * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
@@ -18,6 +18,7 @@ import com.example.bookingappbs.repository.BookingRepository;
 import com.example.bookingappbs.repository.PaymentRepository;
 import com.example.bookingappbs.service.payment.PaymentServiceImpl;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -90,7 +91,8 @@ public class PaymentServiceTest {
                 testBookingId,
                 "test_session_url",
                 testSessionId,
-                BigDecimal.valueOf(100.00)
+                BigDecimal.valueOf(100.00),
+                LocalDateTime.now().plusHours(24)
         );
     }
 
@@ -226,14 +228,18 @@ public class PaymentServiceTest {
         //Given
         String newSessionId = "new_session_id";
         String newSessionUrl = "new_session_url";
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(24);
 
         //When
         when(paymentRepository.findById(testPaymentId)).thenReturn(Optional.of(testPayment));
-        paymentService.updateSessionIdAndUrl(testPaymentId, newSessionId, newSessionUrl);
+        paymentService.updateSessionIdAndUrl(testPaymentId, newSessionId, newSessionUrl,
+                expiresAt);
 
         //Then
         assertEquals(newSessionId, testPayment.getSessionId());
         assertEquals(newSessionUrl, testPayment.getSessionUrl());
+        assertEquals(expiresAt, testPayment.getExpiresAt());
+        assertEquals(Status.PENDING, testPayment.getStatus());
         verify(paymentRepository).findById(testPaymentId);
         verify(paymentRepository).save(testPayment);
     }
@@ -244,7 +250,8 @@ public class PaymentServiceTest {
         when(paymentRepository.findById(testPaymentId)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> paymentService.updateSessionIdAndUrl(testPaymentId, "new_id", "new_url"));
+                () -> paymentService.updateSessionIdAndUrl(testPaymentId, "new_id", "new_url",
+                        LocalDateTime.now()));
 
         assertEquals("Cannot find payment with id: " + testPaymentId, exception.getMessage());
         verify(paymentRepository).findById(testPaymentId);
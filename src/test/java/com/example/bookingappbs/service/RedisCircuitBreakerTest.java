@@ -0,0 +1,117 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bookingappbs.exception.CacheUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RedisCircuitBreakerTest {
+    private static final int WINDOW_SIZE = 4;
+
+    @Test
+    @DisplayName("Verify repeated failures open the circuit and later calls skip Redis")
+    public void execute_FailureRateExceeded_RejectsWithoutCallingRedis() {
+        // Given
+        RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+        failWindow(circuitBreaker);
+
+        // When
+        assertThrows(CacheUnavailableException.class, () -> circuitBreaker.execute("get", () -> {
+            calls.incrementAndGet();
+            return "value";
+        }));
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(calls.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Verify a successful probe closes the circuit and runs the recovery listener")
+    public void execute_ProbeSucceeds_ClosesAndNotifiesRecovery() {
+        // Given
+        RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+        AtomicInteger recoveries = new AtomicInteger();
+        circuitBreaker.onRecovery(recoveries::incrementAndGet);
+        failWindow(circuitBreaker);
+
+        // When
+        String result = circuitBreaker.execute("get", () -> "value");
+
+        // Then
+        assertThat(result).isEqualTo("value");
+        assertThat(circuitBreaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(recoveries.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Verify a failing recovery listener keeps the circuit open until it succeeds")
+    public void execute_RecoveryListenerFails_StaysOpenUntilRecovered() {
+        // Given
+        RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+        circuitBreaker.onRecovery(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Connection reset");
+            }
+        });
+        failWindow(circuitBreaker);
+
+        // When
+        circuitBreaker.execute("get", () -> "value");
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+
+        circuitBreaker.execute("get", () -> "value");
+        assertThat(circuitBreaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(attempts.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Verify a probe rejected by the bulkhead restarts the open period")
+    public void execute_ProbeRejectedByBulkhead_WaitsFullOpenDurationAgain() throws Exception {
+        // Given
+        RedisCircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMillis(500));
+        final AtomicInteger calls = new AtomicInteger();
+        failWindow(circuitBreaker);
+        Thread.sleep(600);
+        Semaphore bulkhead = (Semaphore) ReflectionTestUtils.getField(circuitBreaker, "bulkhead");
+        bulkhead.acquire(2);
+        assertThrows(CacheUnavailableException.class,
+                () -> circuitBreaker.execute("get", () -> "value"));
+        bulkhead.release(2);
+
+        // When
+        assertThrows(CacheUnavailableException.class, () -> circuitBreaker.execute("get", () -> {
+            calls.incrementAndGet();
+            return "value";
+        }));
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(calls.get()).isZero();
+    }
+
+    private RedisCircuitBreaker circuitBreaker(Duration openDuration) {
+        return new RedisCircuitBreaker(WINDOW_SIZE, 0.5, Duration.ofSeconds(1), openDuration,
+                2, new SimpleMeterRegistry());
+    }
+
+    private void failWindow(RedisCircuitBreaker circuitBreaker) {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            assertThrows(CacheUnavailableException.class, () -> circuitBreaker.execute("get",
+                    () -> {
+                        throw new IllegalStateException("Connection refused");
+                    }));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.service.codec.BinaryCacheCodec;
+import com.example.bookingappbs.service.codec.JsonCacheCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@EnabledIfSystemProperty(named = "redis.benchmark", matches = "true")
+public class RedisServiceBenchmarkTest {
+    private static final Logger logger = LogManager.getLogger(RedisServiceBenchmarkTest.class);
+    private static final int OPERATIONS = 10_000;
+    private static final int BATCH_SIZE = 100;
+
+    private JedisConnectionFactory connectionFactory;
+    private RedisService redisService;
+    private List<String> keys;
+    private BookingDto bookingDto;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("redis.benchmark.host", "localhost"),
+                Integer.getInteger("redis.benchmark.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        JsonCacheCodec jsonCacheCodec = new JsonCacheCodec(objectMapper);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        redisService = new RedisService(
+                redisTemplate,
+                List.of(jsonCacheCodec, new BinaryCacheCodec()),
+                jsonCacheCodec,
+                meterRegistry,
+                new NearCache(0, Duration.ofSeconds(1)),
+                new SingleFlight(Duration.ofSeconds(2)),
+                new CacheNamespaces(Duration.ofMinutes(5), Map.of()),
+                new RedisCircuitBreaker(100, 0.5, Duration.ofSeconds(1), Duration.ofSeconds(10),
+                        64, meterRegistry),
+                Runnable::run
+        );
+        ReflectionTestUtils.setField(redisService, "codecName", "binary");
+        ReflectionTestUtils.setField(redisService, "emptyResultTtl", Duration.ofMinutes(1));
+
+        keys = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            keys.add("benchmark::id::" + i);
+        }
+        bookingDto = new BookingDto(1L, LocalDate.now(), LocalDate.now().plusDays(3),
+                2L, 3L, "CONFIRMED");
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisService.deleteAll(keys);
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("Compare single-key and pipelined cache throughput against a local Redis")
+    public void saveAndFind_SingleVersusPipelined_ReportOpsPerSecond() {
+        // When
+        long singleWriteNanos = measure(() -> keys.forEach(key -> redisService.save(key,
+                bookingDto)));
+        long singleReadNanos = measure(() -> keys.forEach(key -> redisService.find(key,
+                BookingDto.class)));
+        long pipelinedWriteNanos = measure(() -> batches().forEach(batch -> {
+            Map<String, BookingDto> values = new LinkedHashMap<>();
+            batch.forEach(key -> values.put(key, bookingDto));
+            redisService.saveAll(values);
+        }));
+        long pipelinedReadNanos = measure(() -> batches().forEach(batch ->
+                redisService.findMany(batch, BookingDto.class)));
+
+        // Then
+        logger.info("Single SET: {} ops/s, pipelined SET: {} ops/s",
+                opsPerSecond(singleWriteNanos), opsPerSecond(pipelinedWriteNanos));
+        logger.info("Single GET: {} ops/s, MGET: {} ops/s",
+                opsPerSecond(singleReadNanos), opsPerSecond(pipelinedReadNanos));
+        assertThat(pipelinedWriteNanos).isLessThan(singleWriteNanos);
+        assertThat(pipelinedReadNanos).isLessThan(singleReadNanos);
+    }
+
+    private List<List<String>> batches() {
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += BATCH_SIZE) {
+            batches.add(keys.subList(i, Math.min(i + BATCH_SIZE, keys.size())));
+        }
+        return batches;
+    }
+
+    private long measure(Runnable operations) {
+        long start = System.nanoTime();
+        operations.run();
+        return System.nanoTime() - start;
+    }
+
+    private long opsPerSecond(long nanos) {
+        return OPERATIONS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
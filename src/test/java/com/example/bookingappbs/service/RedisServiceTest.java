@@ -0,0 +1,459 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.service.codec.JsonCacheCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisServiceTest {
+    private static final Duration NAMESPACE_TTL = Duration.ofMinutes(10);
+    private static final Duration EMPTY_RESULT_TTL = Duration.ofMinutes(1);
+    private static final int ENVELOPE_LENGTH = 10;
+    private static final Duration LEASE_TTL = Duration.ofSeconds(5);
+    private static final Duration PEER_WAIT = Duration.ofMillis(100);
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private RedisConnection connection;
+    @Mock
+    private RedisStringCommands stringCommands;
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    private final List<Runnable> maintenanceTasks = new ArrayList<>();
+    private final NearCache nearCache = new NearCache(1024, Duration.ofSeconds(30));
+    private final Map<String, byte[]> redis = new HashMap<>();
+    private final Map<String, Duration> ttls = new HashMap<>();
+    private RedisService redisService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JsonCacheCodec jsonCacheCodec = new JsonCacheCodec(new ObjectMapper());
+        redisService = new RedisService(
+                redisTemplate,
+                List.of(jsonCacheCodec),
+                jsonCacheCodec,
+                meterRegistry,
+                nearCache,
+                new SingleFlight(Duration.ofSeconds(2)),
+                new CacheNamespaces(NAMESPACE_TTL, Map.of()),
+                new RedisCircuitBreaker(10, 0.5, Duration.ofSeconds(1), Duration.ofSeconds(10),
+                        4, meterRegistry),
+                maintenanceTasks::add
+        );
+        ReflectionTestUtils.setField(redisService, "emptyResultTtl", EMPTY_RESULT_TTL);
+        ReflectionTestUtils.setField(redisService, "codecName", "json");
+        ReflectionTestUtils.setField(redisService, "leaseTtl", LEASE_TTL);
+        ReflectionTestUtils.setField(redisService, "peerWait", PEER_WAIT);
+        ReflectionTestUtils.setField(redisService, "maxPageSizeVariants", 4);
+        ReflectionTestUtils.setField(redisService, "pageSizeAdmissionTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(redisService, "pageSizeDecisionTtl", Duration.ofHours(1));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify cache eviction inside a transaction waits for the commit")
+    public void delete_ActiveTransaction_RunsAfterCommit() {
+        // When
+        redisService.delete("bookings::id::1");
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate, times(1)).delete("bookings::id::1");
+    }
+
+    @Test
+    @DisplayName("Verify the cache write runs on commit and only the peer publish is deferred")
+    public void delete_Committed_DeletesSynchronouslyAndQueuesPublish() {
+        // Given
+        redisService.delete("bookings::id::1");
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        verify(redisTemplate, times(1)).delete("bookings::id::1");
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+        assertThat(maintenanceTasks).hasSize(1);
+
+        maintenanceTasks.forEach(Runnable::run);
+        verify(redisTemplate, times(1))
+                .convertAndSend(NearCache.INVALIDATION_CHANNEL, "bookings::id::1");
+    }
+
+    @Test
+    @DisplayName("Verify a rolled back transaction leaves the cache untouched")
+    public void incrementGeneration_RolledBackTransaction_SkipsInvalidation() {
+        // When
+        redisService.incrementGeneration("accommodations::all");
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Verify an unreachable Redis falls back to the loader instead of failing")
+    public void findAllOrLoad_RedisDown_LoadsDirectly() {
+        // Given
+        when(redisTemplate.getStringSerializer()).thenReturn(RedisSerializer.string());
+        when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // When
+        List<String> result = redisService.findAllOrLoad("accommodations::all::gen:0",
+                String.class, () -> List.of("value"));
+
+        // Then
+        assertThat(result).containsExactly("value");
+    }
+
+    @Test
+    @DisplayName("Verify a generation read racing an invalidation is not kept in the near cache")
+    public void currentGeneration_InvalidatedDuringRead_SkipsNearCache() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation -> {
+            nearCache.invalidate(List.of("bookings::generation"));
+            return List.of("3");
+        });
+
+        // When
+        long generation = redisService.currentGeneration("bookings");
+
+        // Then
+        assertThat(generation).isEqualTo(3L);
+        assertThat(nearCache.<Long>get("bookings::generation")).isNull();
+    }
+
+    @Test
+    @DisplayName("Verify an empty result is stored as a bare sentinel with the shorter TTL")
+    public void save_EmptyList_StoresSentinelWithEmptyResultTtl() {
+        // Given
+        useInMemoryRedis();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // When
+        redisService.save("bookings::user:1::page:0", List.of());
+        redisService.save("bookings::user:2::page:0", List.of("booking"));
+
+        // Then
+        byte[] sentinel = redis.get("bookings::user:1::page:0");
+        assertThat(sentinel).hasSize(ENVELOPE_LENGTH);
+        assertThat(sentinel[1]).isZero();
+        assertThat(ttls.get("bookings::user:1::page:0")).isEqualTo(EMPTY_RESULT_TTL);
+        assertThat(redis.get("bookings::user:2::page:0")).hasSizeGreaterThan(ENVELOPE_LENGTH);
+        assertThat(ttls.get("bookings::user:2::page:0")).isEqualTo(NAMESPACE_TTL);
+    }
+
+    @Test
+    @DisplayName("Verify a cached empty list is a hit while a missing key is a miss")
+    public void findAll_EmptySentinelAndMissingKey_DistinguishesEmptyFromAbsent() {
+        // Given
+        useInMemoryRedis();
+        TransactionSynchronizationManager.clearSynchronization();
+        redisService.save("bookings::user:1::page:0", List.of());
+        nearCache.invalidateAll();
+
+        // When
+        List<String> empty = redisService.findAll("bookings::user:1::page:0", String.class);
+        List<String> absent = redisService.findAll("bookings::user:2::page:0", String.class);
+
+        // Then
+        assertThat(empty).isNotNull().isEmpty();
+        assertThat(absent).isNull();
+    }
+
+    @Test
+    @DisplayName("Verify a single-value lookup treats the empty sentinel as no value")
+    public void find_EmptySentinel_ReturnsNull() {
+        // Given
+        useInMemoryRedis();
+        TransactionSynchronizationManager.clearSynchronization();
+        redisService.save("bookings::id::1", List.of());
+        nearCache.invalidateAll();
+
+        // When
+        String value = redisService.find("bookings::id::1", String.class);
+
+        // Then
+        assertThat(value).isNull();
+        assertThat(redis).containsKey("bookings::id::1");
+    }
+
+    @Test
+    @DisplayName("Verify a write-through save tells peers to drop their near-cache copy")
+    public void save_Committed_PublishesInvalidationToPeers() {
+        // Given
+        useInMemoryRedis();
+        redisService.save("bookings::id::1", "updated");
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        maintenanceTasks.forEach(Runnable::run);
+
+        // Then
+        assertThat(nearCache.<String>get("bookings::id::1")).isEqualTo("updated");
+        verify(redisTemplate, times(1))
+                .convertAndSend(NearCache.INVALIDATION_CHANNEL, "bookings::id::1");
+    }
+
+    @Test
+    @DisplayName("Verify a batch save is one pipeline, deferred to commit, with per-key TTLs")
+    public void saveAll_ActiveTransaction_WritesOnePipelineAfterCommit() {
+        // Given
+        useInMemoryRedis();
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        values.put("bookings::id::1", List.of("booking"));
+        values.put("bookings::id::2", List.of());
+
+        // When
+        redisService.saveAll(values);
+
+        // Then
+        assertThat(redis).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        assertThat(redis).containsOnlyKeys("bookings::id::1", "bookings::id::2");
+        assertThat(ttls.get("bookings::id::1")).isEqualTo(NAMESPACE_TTL);
+        assertThat(ttls.get("bookings::id::2")).isEqualTo(EMPTY_RESULT_TTL);
+        assertThat(nearCache.<List<String>>get("bookings::id::1")).containsExactly("booking");
+    }
+
+    @Test
+    @DisplayName("Verify a batch lookup serves near-cache hits and fetches the rest in one MGET")
+    public void findMany_MixedHits_FetchesOnlyMissingKeysInOneRoundTrip() {
+        // Given
+        useInMemoryRedis();
+        TransactionSynchronizationManager.clearSynchronization();
+        redisService.save("bookings::id::1", "first");
+        redisService.save("bookings::id::2", "second");
+        nearCache.invalidate(List.of("bookings::id::2"));
+
+        // When
+        Map<String, String> values = redisService.findMany(
+                List.of("bookings::id::1", "bookings::id::2", "bookings::id::3"), String.class);
+
+        // Then
+        assertThat(values).containsExactly(
+                Map.entry("bookings::id::1", "first"), Map.entry("bookings::id::2", "second"));
+        verify(stringCommands, times(1)).mGet(any(byte[][].class));
+        verify(stringCommands, never()).get(any());
+    }
+
+    @Test
+    @DisplayName("Verify saves and deletes queued in one scope share a single pipeline")
+    public void pipelined_SavesAndDeletes_SendsOnePipeline() {
+        // Given
+        useInMemoryRedis();
+        TransactionSynchronizationManager.clearSynchronization();
+        redisService.save("bookings::id::1", "stale");
+
+        // When
+        redisService.pipelined(pipeline -> pipeline
+                .save("bookings::id::2", "fresh")
+                .delete("bookings::id::1"));
+
+        // Then
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(keyCommands, times(1)).del(any(byte[][].class));
+        assertThat(redis).containsOnlyKeys("bookings::id::2");
+        assertThat(nearCache.<String>get("bookings::id::1")).isNull();
+        assertThat(nearCache.<String>get("bookings::id::2")).isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("Verify the load lease is released only after the deferred save has run")
+    public void findAllOrLoad_LeaseAcquired_ReleasesLeaseAfterCommittedSave() {
+        // Given
+        useInMemoryRedis();
+        missFromRedis();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenReturn(true);
+
+        // When
+        List<String> result = redisService.findAllOrLoad("bookings::user:1::page:0",
+                String.class, () -> List.of("booking"));
+
+        // Then
+        assertThat(result).containsExactly("booking");
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        InOrder inOrder = inOrder(stringCommands, redisTemplate);
+        inOrder.verify(stringCommands).set(any(), any(), any(), any());
+        inOrder.verify(redisTemplate).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Verify a peer holding the lease delays the request by at most the peer wait")
+    public void findAllOrLoad_PeerHoldsLease_LoadsAfterPeerWait() {
+        // Given
+        useInMemoryRedis();
+        missFromRedis();
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenReturn(false);
+        long start = System.nanoTime();
+
+        // When
+        List<String> result = redisService.findAllOrLoad("bookings::user:1::page:0",
+                String.class, () -> List.of("booking"));
+
+        // Then
+        assertThat(result).containsExactly("booking");
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isGreaterThanOrEqualTo(PEER_WAIT)
+                .isLessThan(LEASE_TTL);
+    }
+
+    @Test
+    @DisplayName("Verify a rejected page size is remembered locally until its decision expires")
+    public void findPageOrLoad_RejectedPageSize_AsksRedisOncePerDecisionTtl() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenReturn(0L);
+        PageRequest pageable = PageRequest.of(0, 20);
+
+        // When
+        redisService.findPageOrLoad("bookings::user:1::page:0", pageable, String.class,
+                () -> List.of("booking"));
+        List<String> result = redisService.findPageOrLoad("bookings::user:1::page:0", pageable,
+                String.class, () -> List.of("booking"));
+
+        // Then
+        assertThat(result).containsExactly("booking");
+        verify(redisTemplate, times(1))
+                .execute(any(RedisScript.class), anyList(), eq("20"), eq("4"), eq("3600000"));
+    }
+
+    @Test
+    @DisplayName("Verify an expired page size decision is checked with Redis again")
+    public void findPageOrLoad_DecisionExpired_AsksRedisAgain() {
+        // Given
+        ReflectionTestUtils.setField(redisService, "pageSizeDecisionTtl", Duration.ZERO);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenReturn(0L);
+        PageRequest pageable = PageRequest.of(0, 20);
+
+        // When
+        redisService.findPageOrLoad("bookings::user:1::page:0", pageable, String.class,
+                () -> List.of("booking"));
+        redisService.findPageOrLoad("bookings::user:1::page:0", pageable, String.class,
+                () -> List.of("booking"));
+
+        // Then
+        verify(redisTemplate, times(2))
+                .execute(any(RedisScript.class), anyList(), eq("20"), eq("4"), eq("3600000"));
+    }
+
+    private void missFromRedis() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenReturn(Arrays.asList(null, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void useInMemoryRedis() {
+        RedisSerializer<String> keySerializer = RedisSerializer.string();
+        lenient().when(redisTemplate.getStringSerializer()).thenReturn(keySerializer);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(connection.stringCommands()).thenReturn(stringCommands);
+        lenient().when(valueOperations.multiGet(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.<List<String>>getArgument(0).size(), null));
+        lenient().when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(invocation ->
+                invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection));
+        lenient().when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+                    return List.of();
+                });
+        lenient().when(stringCommands.set(any(), any(), any(), any())).thenAnswer(invocation -> {
+            String key = keySerializer.deserialize(invocation.getArgument(0));
+            redis.put(key, invocation.getArgument(1));
+            ttls.put(key, Duration.ofMillis(invocation.<Expiration>getArgument(2)
+                    .getExpirationTimeInMilliseconds()));
+            return true;
+        });
+        lenient().when(connection.keyCommands()).thenReturn(keyCommands);
+        lenient().when(keyCommands.del(any(byte[][].class))).thenAnswer(invocation -> {
+            long deleted = 0;
+            for (Object rawKey : invocation.getArguments()) {
+                String key = keySerializer.deserialize((byte[]) rawKey);
+                ttls.remove(key);
+                deleted += redis.remove(key) != null ? 1 : 0;
+            }
+            return deleted;
+        });
+        lenient().when(stringCommands.get(any())).thenAnswer(invocation ->
+                redis.get(keySerializer.deserialize(invocation.getArgument(0))));
+        lenient().when(stringCommands.mGet(any(byte[][].class))).thenAnswer(invocation -> {
+            List<byte[]> values = new ArrayList<>();
+            for (Object rawKey : invocation.getArguments()) {
+                values.add(redis.get(keySerializer.deserialize((byte[]) rawKey)));
+            }
+            return values;
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.bookingappbs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.dto.payment.CheckoutSession;
+import com.example.bookingappbs.service.payment.PaymentGateway;
+import com.example.bookingappbs.service.payment.SimulatedPaymentGateway;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SimulatedPaymentGatewayTest {
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(100);
+
+    private BookingDto bookingDto;
+
+    @BeforeEach
+    void setUp() {
+        bookingDto = new BookingDto(1L, LocalDate.now(), LocalDate.now().plusDays(2),
+                2L, 3L, "PENDING");
+    }
+
+    @Test
+    @DisplayName("Verify the same seed replays the same payment outcomes")
+    public void retrieveSession_SameSeed_ReplaysOutcomes() throws Exception {
+        // Given
+        SimulatedPaymentGateway first = gateway(7L, 0, 0.5, Duration.ofHours(1));
+        SimulatedPaymentGateway second = gateway(7L, 0, 0.5, Duration.ofHours(1));
+
+        // When
+        List<String> firstOutcomes = outcomes(first, 50);
+        List<String> secondOutcomes = outcomes(second, 50);
+
+        // Then
+        assertEquals(firstOutcomes, secondOutcomes);
+        assertTrue(firstOutcomes.contains(PaymentGateway.SESSION_COMPLETE));
+        assertTrue(firstOutcomes.contains(PaymentGateway.SESSION_OPEN));
+    }
+
+    @Test
+    @DisplayName("Verify an abandoned session expires after its TTL")
+    public void retrieveSession_AbandonedSessionPastTtl_ReturnsExpired() throws Exception {
+        // Given
+        SimulatedPaymentGateway gateway = gateway(1L, 0, 0, Duration.ofMillis(1));
+        CheckoutSession created = gateway.createPaymentSession(bookingDto, AMOUNT);
+        Thread.sleep(5);
+
+        // When
+        CheckoutSession retrieved = gateway.retrieveSession(created.id());
+
+        // Then
+        assertEquals(PaymentGateway.SESSION_EXPIRED, retrieved.status());
+        assertEquals(PaymentGateway.PAYMENT_STATUS_UNPAID, retrieved.paymentStatus());
+        assertTrue(created.url().contains("/payments/cancel"));
+    }
+
+    @Test
+    @DisplayName("Verify injected failures surface as Stripe connection errors")
+    public void createPaymentSession_FailureInjected_ThrowsApiConnectionException() {
+        // Given
+        SimulatedPaymentGateway gateway = gateway(1L, 1, 1, Duration.ofHours(1));
+
+        // When
+        // Then
+        assertThrows(ApiConnectionException.class,
+                () -> gateway.createPaymentSession(bookingDto, AMOUNT));
+    }
+
+    @Test
+    @DisplayName("Verify concurrent callers draw the same failures as a sequential replay")
+    public void createPaymentSession_ConcurrentCallers_DrawsSameFailuresAsSequential()
+            throws Exception {
+        // Given
+        SimulatedPaymentGateway sequential = gateway(11L, 0.3, 0, Duration.ofHours(1));
+        SimulatedPaymentGateway concurrent = gateway(11L, 0.3, 0, Duration.ofHours(1));
+        int calls = 400;
+        int expectedFailures = 0;
+        for (int i = 0; i < calls; i++) {
+            expectedFailures += failed(sequential) ? 1 : 0;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            results.add(executor.submit(() -> failed(concurrent)));
+        }
+        int failures = 0;
+        for (Future<Boolean> result : results) {
+            failures += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdownNow();
+
+        // Then
+        assertEquals(expectedFailures, failures);
+        assertTrue(failures > 0 && failures < calls);
+    }
+
+    private boolean failed(SimulatedPaymentGateway gateway) throws StripeException {
+        try {
+            gateway.createPaymentSession(bookingDto, AMOUNT);
+            return false;
+        } catch (ApiConnectionException e) {
+            return true;
+        }
+    }
+
+    private List<String> outcomes(SimulatedPaymentGateway gateway, int sessions)
+            throws Exception {
+        List<String> outcomes = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            String sessionId = gateway.createPaymentSession(bookingDto, AMOUNT).id();
+            outcomes.add(gateway.retrieveSession(sessionId).status());
+        }
+        return outcomes;
+    }
+
+    private SimulatedPaymentGateway gateway(long seed, double failureRate,
+                                            double completionRate, Duration sessionTtl) {
+        return new SimulatedPaymentGateway(seed, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                Duration.ZERO, failureRate, completionRate, Duration.ZERO, sessionTtl,
+                Duration.ofHours(1), "http://localhost:8080");
+    }
+}
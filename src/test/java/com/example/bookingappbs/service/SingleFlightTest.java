@@ -0,0 +1,111 @@
+package com.example.bookingappbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+    private final SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("Verify concurrent loads of the same key run the loader once")
+    public void load_ConcurrentCallers_LoaderRunsOnce() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        final Future<List<String>> leader = executor.submit(() -> singleFlight.load("key", () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return List.of("value");
+        }));
+        loaderStarted.await(5, TimeUnit.SECONDS);
+        final List<Future<List<String>>> followers = List.of(
+                executor.submit(() -> singleFlight.load("key", () -> {
+                    loads.incrementAndGet();
+                    return List.of("duplicate");
+                })),
+                executor.submit(() -> singleFlight.load("key", () -> {
+                    loads.incrementAndGet();
+                    return List.of("duplicate");
+                })));
+        Thread.sleep(100);
+        releaseLoader.countDown();
+
+        // Then
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("value");
+        for (Future<List<String>> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).containsExactly("value");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Verify a failed load is not remembered for later callers")
+    public void load_LoaderFails_NextCallLoadsAgain() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("key", () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("Database unavailable");
+        }));
+        String result = singleFlight.load("key", () -> {
+            loads.incrementAndGet();
+            return "value";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("value");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Verify a follower stops waiting for a stuck load and loads by itself")
+    public void load_LeaderExceedsTimeout_FollowerLoadsDirectly() throws Exception {
+        // Given
+        SingleFlight shortWait = new SingleFlight(Duration.ofMillis(100));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<String> leader = executor.submit(() -> shortWait.load("key", () -> {
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return "stuck";
+        }));
+        loaderStarted.await(5, TimeUnit.SECONDS);
+
+        // When
+        String result = shortWait.load("key", () -> "direct");
+
+        // Then
+        assertThat(result).isEqualTo("direct");
+        releaseLoader.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("stuck");
+        executor.shutdownNow();
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
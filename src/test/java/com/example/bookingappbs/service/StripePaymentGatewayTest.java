@@ -0,0 +1,110 @@
+package com.example.bookingappbs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.dto.booking.BookingDto;
+import com.example.bookingappbs.dto.payment.CheckoutSession;
+import com.example.bookingappbs.service.payment.StripePaymentGateway;
+import com.stripe.StripeClient;
+import com.stripe.model.checkout.Session;
+import com.stripe.param.checkout.SessionCreateParams;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class StripePaymentGatewayTest {
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private StripeClient stripeClient;
+    @InjectMocks
+    private StripePaymentGateway stripePaymentGateway;
+
+    private String testDomain;
+    private String testCurrency;
+    private String testDescriptionPrefix;
+    private Long testUserId;
+    private BookingDto testBookingDto;
+    private String testSessionId;
+
+    @BeforeEach
+    void setUp() {
+        testDomain = "https://test.domain";
+        testCurrency = "usd";
+        testDescriptionPrefix = "Booking #";
+
+        ReflectionTestUtils.setField(stripePaymentGateway, "domain", testDomain);
+        ReflectionTestUtils.setField(stripePaymentGateway, "currency", testCurrency);
+        ReflectionTestUtils.setField(stripePaymentGateway, "descriptionPrefix",
+                testDescriptionPrefix);
+
+        testUserId = 1L;
+        testBookingDto = new BookingDto(
+                10L,
+                null,
+                null,
+                null,
+                testUserId,
+                null
+        );
+        testSessionId = "cs_test_123";
+    }
+
+    @Test
+    void createPaymentSession_ShouldReturnSession_WhenCalledWithValidData() throws Exception {
+        // Given
+        final BigDecimal totalAmount = new BigDecimal("100.00");
+        String expectedSessionId = "test_session_id";
+        Session session = new Session();
+        session.setId(expectedSessionId);
+        session.setUrl("https://checkout.stripe.com/test_session_id");
+        session.setExpiresAt(1_760_000_000L);
+        when(stripeClient.checkout().sessions().create(any(SessionCreateParams.class)))
+                .thenReturn(session);
+
+        //When
+        CheckoutSession result = stripePaymentGateway.createPaymentSession(testBookingDto,
+                totalAmount);
+
+        // Then
+        assertEquals(expectedSessionId, result.id());
+        assertEquals(session.getUrl(), result.url());
+        assertNotNull(result.expiresAt());
+
+        ArgumentCaptor<SessionCreateParams> captor =
+                ArgumentCaptor.forClass(SessionCreateParams.class);
+        verify(stripeClient.checkout().sessions()).create(captor.capture());
+        assertTrue(captor.getValue().getSuccessUrl().contains("/payments/success"));
+        assertTrue(captor.getValue().getCancelUrl().contains("/payments/cancel"));
+    }
+
+    @Test
+    void retrieveSession_ShouldReturnSession_WhenSessionIdIsValid() throws Exception {
+        // Given
+        Session session = new Session();
+        session.setId(testSessionId);
+        session.setStatus("complete");
+        session.setPaymentStatus("paid");
+        when(stripeClient.checkout().sessions().retrieve(testSessionId)).thenReturn(session);
+
+        //When
+        CheckoutSession result = stripePaymentGateway.retrieveSession(testSessionId);
+
+        // Then
+        assertNotNull(result);
+        assertEquals(testSessionId, result.id());
+        assertEquals("complete", result.status());
+        assertEquals("paid", result.paymentStatus());
+    }
+}
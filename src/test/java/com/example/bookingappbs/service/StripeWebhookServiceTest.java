@@ -0,0 +1,158 @@
+package com.example.bookingappbs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookingappbs.model.StripeWebhookEvent;
+import com.example.bookingappbs.repository.StripeWebhookEventRepository;
+import com.example.bookingappbs.service.payment.PaymentProcessingService;
+import com.example.bookingappbs.service.payment.PaymentService;
+import com.example.bookingappbs.service.payment.StripeWebhookService;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeWebhookServiceTest {
+    private static final String WEBHOOK_SECRET = "whsec_test_secret";
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private StripeWebhookEventRepository stripeWebhookEventRepository;
+    @Mock
+    private PaymentProcessingService paymentProcessingService;
+    @Mock
+    private PaymentService paymentService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StripeWebhookService stripeWebhookService;
+
+    @BeforeEach
+    void setUp() {
+        stripeWebhookService = new StripeWebhookService(stripeWebhookEventRepository,
+                paymentProcessingService, paymentService, WEBHOOK_SECRET,
+                Duration.ofSeconds(30), Duration.ofHours(1), MAX_ATTEMPTS, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Verify a redelivered Stripe event is stored only once")
+    public void receive_RedeliveredEvent_StoresOnce() throws Exception {
+        // Given
+        String payload = fixture("checkout-session-completed.json");
+        when(stripeWebhookEventRepository.existsByEventId("evt_test_checkout_completed"))
+                .thenReturn(false, true);
+
+        // When
+        boolean first = stripeWebhookService.receive(payload, sign(payload));
+        boolean second = stripeWebhookService.receive(payload, sign(payload));
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        ArgumentCaptor<StripeWebhookEvent> captor =
+                ArgumentCaptor.forClass(StripeWebhookEvent.class);
+        verify(stripeWebhookEventRepository, times(1)).save(captor.capture());
+        assertEquals("cs_test_completed", captor.getValue().getSessionId());
+        assertEquals("checkout.session.completed", captor.getValue().getEventType());
+    }
+
+    @Test
+    @DisplayName("Verify a stored completed event marks the payment paid exactly once")
+    public void apply_CompletedEvent_CompletesPaymentOnce() {
+        // Given
+        StripeWebhookEvent event = event("checkout.session.completed", "cs_test_completed");
+        when(stripeWebhookEventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(paymentService.existsBySessionId("cs_test_completed")).thenReturn(true);
+
+        // When
+        stripeWebhookService.apply(1L);
+        stripeWebhookService.apply(1L);
+
+        // Then
+        verify(paymentProcessingService, times(1)).completePayment("cs_test_completed");
+        verify(paymentService, never()).expirePendingPayment(anyString());
+        assertNotNull(event.getProcessedAt());
+    }
+
+    @Test
+    @DisplayName("Verify a stored expired event only expires a still pending payment")
+    public void apply_ExpiredEvent_ExpiresPendingPayment() {
+        // Given
+        StripeWebhookEvent event = event("checkout.session.expired", "cs_test_expired");
+        when(stripeWebhookEventRepository.findById(2L)).thenReturn(Optional.of(event));
+        when(paymentService.existsBySessionId("cs_test_expired")).thenReturn(true);
+
+        // When
+        stripeWebhookService.apply(2L);
+
+        // Then
+        verify(paymentService, times(1)).expirePendingPayment("cs_test_expired");
+        verify(paymentProcessingService, never()).completePayment(any());
+        assertNotNull(event.getProcessedAt());
+    }
+
+    @Test
+    @DisplayName("Verify an event that exhausted its attempts is marked failed, not claimed")
+    public void claimBatch_AttemptsExhausted_MarksEventFailed() {
+        // Given
+        StripeWebhookEvent exhausted = event("checkout.session.completed", "cs_test_exhausted");
+        exhausted.setId(1L);
+        exhausted.setAttempts(MAX_ATTEMPTS);
+        StripeWebhookEvent retried = event("checkout.session.completed", "cs_test_retried");
+        retried.setId(2L);
+        retried.setAttempts(1);
+        when(stripeWebhookEventRepository.findPending(any(), any()))
+                .thenReturn(List.of(exhausted, retried));
+
+        // When
+        List<Long> claimed = stripeWebhookService.claimBatch(10);
+
+        // Then
+        assertEquals(List.of(2L), claimed);
+        assertNotNull(exhausted.getFailedAt());
+        assertEquals(MAX_ATTEMPTS, exhausted.getAttempts());
+        assertEquals(2, retried.getAttempts());
+        assertEquals(1.0, meterRegistry.counter("payments.webhook.failed").count());
+    }
+
+    private StripeWebhookEvent event(String type, String sessionId) {
+        StripeWebhookEvent event = new StripeWebhookEvent();
+        event.setEventId("evt_" + sessionId);
+        event.setEventType(type);
+        event.setSessionId(sessionId);
+        event.setReceivedAt(LocalDateTime.now());
+        event.setAvailableAt(LocalDateTime.now());
+        return event;
+    }
+
+    private String fixture(String name) throws Exception {
+        return new String(new ClassPathResource("stripe/" + name).getInputStream()
+                .readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private String sign(String payload) throws Exception {
+        long timestamp = Webhook.Util.getTimeNow();
+        return "t=" + timestamp + ",v1="
+                + Webhook.Util.computeHmacSha256(WEBHOOK_SECRET, timestamp + "." + payload);
+    }
+}
@@ -21,6 +21,7 @@ import com.example.bookingappbs.model.Role;
 import com.example.bookingappbs.model.User;
 import com.example.bookingappbs.repository.RoleRepository;
 import com.example.bookingappbs.repository.UserRepository;
+import com.example.bookingappbs.security.PrincipalCache;
 import com.example.bookingappbs.service.user.UserServiceImpl;
 import java.util.HashSet;
 import java.util.Optional;
@@ -46,6 +47,8 @@ public class UserServiceTest {
     private UserMapper userMapper;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private PrincipalCache principalCache;
 
     private UserRegistrationRequestDto registrationRequestDto;
     private User userToSave;
@@ -174,7 +177,8 @@ public class UserServiceTest {
         verify(roleRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(existingUser);
         verify(userMapper, times(1)).toDto(updatedUserWithRole);
-        verifyNoMoreInteractions(userRepository, userMapper);
+        verify(principalCache, times(1)).evict(existingUser.getEmail());
+        verifyNoMoreInteractions(userRepository, userMapper, principalCache);
     }
 
     @Test
@@ -235,6 +239,8 @@ public class UserServiceTest {
                 .updateUserFromDto(updateCurrentUserRequestDto, existingUser, passwordEncoder);
         verify(userRepository, times(1)).save(existingUser);
         verify(userMapper, times(1)).toDto(updatedLocalUser);
-        verifyNoMoreInteractions(userRepository, userMapper);
+        verify(principalCache, times(1)).evict("test@example.com");
+        verify(principalCache, times(1)).evict(updateCurrentUserRequestDto.email());
+        verifyNoMoreInteractions(userRepository, userMapper, principalCache);
     }
 }
@@ -0,0 +1,59 @@
+package com.example.bookingappbs.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class OccupancyCalendarTest {
+    private static final long ORIGIN_DAY = 20_000;
+
+    private final Counter underflows = new SimpleMeterRegistry().counter("underflows");
+    private final OccupancyCalendar calendar = new OccupancyCalendar(ORIGIN_DAY, 5, underflows);
+
+    @Test
+    @DisplayName("Verify rolling forward shifts nights and seeds the new tail from storage")
+    public void rollTo_LaterOrigin_ShiftsNightsAndSeedsTail() {
+        // Given
+        calendar.replaceWith(new int[] {1, 2, 3, 4, 5});
+
+        // When
+        calendar.rollTo(ORIGIN_DAY + 2, new int[] {3, 4, 5, 7, 8});
+
+        // Then
+        assertThat(calendar.snapshot()).containsExactly(3, 4, 5, 7, 8);
+        assertThat(calendar.covers(ORIGIN_DAY + 5, ORIGIN_DAY + 7)).isTrue();
+        assertThat(calendar.covers(ORIGIN_DAY, ORIGIN_DAY + 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Verify a roll past the whole horizon reloads every night")
+    public void rollTo_BeyondHorizon_ReplacesAllNights() {
+        // Given
+        calendar.replaceWith(new int[] {1, 1, 1, 1, 1});
+
+        // When
+        calendar.rollTo(ORIGIN_DAY + 30, null);
+
+        // Then
+        assertThat(calendar.snapshot()).containsOnly(0);
+        assertThat(calendar.originDay()).isEqualTo(ORIGIN_DAY + 30);
+    }
+
+    @Test
+    @DisplayName("Verify releasing nights that are not occupied is counted, not hidden")
+    public void occupy_DoubleRelease_CountsNegativeNights() {
+        // Given
+        calendar.occupy(ORIGIN_DAY, ORIGIN_DAY + 2, 1);
+        calendar.occupy(ORIGIN_DAY, ORIGIN_DAY + 2, -1);
+
+        // When
+        calendar.occupy(ORIGIN_DAY, ORIGIN_DAY + 2, -1);
+
+        // Then
+        assertThat(underflows.count()).isEqualTo(2);
+        assertThat(calendar.snapshot()).containsOnly(0);
+    }
+}